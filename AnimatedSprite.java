@@ -0,0 +1,164 @@
+import javax.swing.JComponent; // Imports the base for custom-drawn components
+import javax.swing.SwingUtilities; // Imports helper for running UI updates on the EDT
+import javax.swing.UIManager; // Imports the look-and-feel’s label font and color
+import java.awt.*; // Imports drawing tools
+
+/**
+ * A character drawn from the SpriteAtlas and animated by the AnimationClock.
+ * It replaces a JLabel holding a static sprite: it stands in its idle clip, plays a clip
+ * on request (an attack, a hit) and then goes back to idle, except "defeat", which holds
+ * its last frame. Frames are copied straight out of the shared sheet.
+ */
+public class AnimatedSprite extends JComponent implements AnimationClock.Animated
+{
+    private final String missingText; // Shown if the sprite can’t be loaded
+    private String spritePath; // The character being shown (EDT only)
+    private volatile Playing playing; // The clip on display (read by the active renderer too)
+    private boolean missing; // Whether the sprite failed to load (EDT only)
+    private int shownFrame = -1; // Frame last painted, so ticks only repaint on a change (EDT only)
+
+    /**
+     * Constructor: Creates an empty sprite (call setSprite to show a character).
+     * @param missingText Text to show if the sprite can’t be loaded (e.g., "Enemy Image Missing").
+     */
+    public AnimatedSprite(String missingText)
+    {
+        this.missingText = missingText;
+        setFont(UIManager.getFont("Label.font")); // Same text look as the label it replaces
+        setForeground(UIManager.getColor("Label.foreground"));
+    }
+
+    /**
+     * Shows a character, standing in its idle clip once its sheet has loaded.
+     * Must be called on the EDT.
+     * @param spritePath The character’s sprite (e.g., Enemy.getSpritePath()).
+     */
+    public void setSprite(String spritePath)
+    {
+        this.spritePath = spritePath;
+        playing = null; // Blank until the sheet is ready
+        missing = false;
+        repaint();
+        SpriteAtlas.shared().sheet(spritePath).thenAccept(sheet -> SwingUtilities.invokeLater(() ->
+        {
+            if (!spritePath.equals(this.spritePath)) return; // Moved on to another character
+            if (sheet == null)
+            {
+                missing = true;
+                repaint();
+                return;
+            }
+            start(sheet, SpriteAtlas.IDLE);
+        }));
+    }
+
+    /**
+     * Plays a clip, then returns to idle (does nothing until the sheet has loaded).
+     * Must be called on the EDT.
+     * @param clipName The clip: SpriteAtlas.HIT, SpriteAtlas.DEFEAT, or an attack name from Enemy.chooseAttack.
+     */
+    public void play(String clipName)
+    {
+        Playing current = playing;
+        if (current != null) start(current.sheet, clipName);
+    }
+
+    /**
+     * Starts a clip from its first frame.
+     */
+    private void start(SpriteAtlas.Sheet sheet, String clipName)
+    {
+        SpriteAtlas.Clip clip = sheet.clip(clipName);
+        playing = new Playing(sheet, clip, clipName.equals(SpriteAtlas.DEFEAT), AnimationClock.shared().now());
+        shownFrame = -1;
+        repaint();
+    }
+
+    /**
+     * Moves to the current time: ends a finished clip and repaints on a new frame (clock tick, EDT).
+     * @param now The clock’s time.
+     */
+    @Override
+    public void advance(long now)
+    {
+        Playing current = playing;
+        if (current == null) return;
+        long elapsed = now - current.started;
+        if (!current.hold && current.clip != current.sheet.clip(SpriteAtlas.IDLE) && current.clip.isFinished(elapsed))
+        {
+            start(current.sheet, SpriteAtlas.IDLE); // One-shot clip done: back to standing
+            return;
+        }
+        if (isShowing() && current.clip.frameAt(elapsed) != shownFrame) repaint(); // Hidden sprites cost no painting
+    }
+
+    @Override
+    public void addNotify()
+    {
+        super.addNotify();
+        AnimationClock.shared().register(this); // Ticks while in the window
+    }
+
+    @Override
+    public void removeNotify()
+    {
+        AnimationClock.shared().unregister(this);
+        super.removeNotify();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        if (missing)
+        {
+            FontMetrics metrics = g.getFontMetrics(getFont());
+            g.setFont(getFont());
+            g.setColor(getForeground());
+            g.drawString(missingText, 0, (getHeight() + metrics.getAscent() - metrics.getDescent()) / 2);
+            return;
+        }
+        shownFrame = draw(g, 0, 0, AnimationClock.shared().now());
+    }
+
+    /**
+     * Draws the current frame with the sprite’s box at (x, y), left-aligned and centered vertically
+     * like a label’s icon. Safe from the active renderer’s thread.
+     * @param g Where to draw.
+     * @param x Left of the sprite’s box.
+     * @param y Top of the sprite’s box.
+     * @param now The clock’s time.
+     * @return The frame drawn, or -1 if nothing was drawn.
+     */
+    public int draw(Graphics g, int x, int y, long now)
+    {
+        Playing current = playing;
+        if (current == null) return -1;
+        SpriteAtlas.Clip clip = current.clip;
+        int frame = clip.frameAt(now - current.started);
+        int sourceX = frame * clip.width;
+        int sourceY = clip.row * clip.height;
+        int top = y + (getHeight() - clip.height) / 2;
+        g.drawImage(current.sheet.image, x, top, x + clip.width, top + clip.height,
+                sourceX, sourceY, sourceX + clip.width, sourceY + clip.height, null); // One frame out of the shared sheet
+        return frame;
+    }
+
+    /**
+     * The clip on display and when it started (replaced as a whole, so other threads see a consistent pair).
+     */
+    private static class Playing
+    {
+        final SpriteAtlas.Sheet sheet; // The character’s sheet
+        final SpriteAtlas.Clip clip; // The clip playing
+        final boolean hold; // Whether to stay on the last frame instead of returning to idle
+        final long started; // Clock time the clip started
+
+        Playing(SpriteAtlas.Sheet sheet, SpriteAtlas.Clip clip, boolean hold, long started)
+        {
+            this.sheet = sheet;
+            this.clip = clip;
+            this.hold = hold;
+            this.started = started;
+        }
+    }
+}
\ No newline at end of file
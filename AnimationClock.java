@@ -0,0 +1,86 @@
+import javax.swing.Timer; // Imports the Swing timer that drives ticks on the EDT
+import java.util.ArrayList; // Imports the list of sprites
+import java.util.List; // Imports List interface
+
+/**
+ * Central clock for sprite animations and particle effects.
+ * One Swing timer ticks everything animated in the window in a single pass, instead of each
+ * one running its own timer; a sprite only repaints when its frame actually changes.
+ * Frames are worked out from the clock’s time, not counted per tick, so a late tick
+ * (or the active renderer drawing on its own thread) always shows the right frame.
+ */
+public class AnimationClock
+{
+    static final int TICK_MS = 16; // About 60 ticks per second
+
+    private static final AnimationClock shared = new AnimationClock(); // The game’s clock
+
+    private final long origin = System.nanoTime(); // Time zero
+    private final List<Animated> animated = new ArrayList<>(); // Sprites and effects in the window (EDT only)
+    private final Timer timer = new Timer(TICK_MS, e -> tick()); // Runs only while something is animated
+    private long ticks; // Passes made (EDT only)
+
+    /**
+     * Gets the clock used by the game.
+     * @return The shared clock.
+     */
+    public static AnimationClock shared() { return shared; }
+
+    /**
+     * Gets the clock’s time (safe from any thread).
+     * @return Milliseconds since the clock was created.
+     */
+    public long now()
+    {
+        return (System.nanoTime() - origin) / 1_000_000;
+    }
+
+    /**
+     * Adds something to the tick pass (EDT, when it joins the window).
+     * @param item The sprite or effect.
+     */
+    void register(Animated item)
+    {
+        animated.add(item);
+        if (!timer.isRunning()) timer.start();
+    }
+
+    /**
+     * Removes something from the tick pass (EDT, when it leaves the window).
+     * @param item The sprite or effect.
+     */
+    void unregister(Animated item)
+    {
+        animated.remove(item);
+        if (animated.isEmpty()) timer.stop(); // Nothing to animate, so no wakeups
+    }
+
+    /**
+     * Advances everything to the current time (EDT).
+     */
+    private void tick()
+    {
+        long now = now();
+        for (int i = 0; i < animated.size(); i++)
+        {
+            animated.get(i).advance(now);
+        }
+        ticks++;
+    }
+
+    // Getters
+    public long getTicks() { return ticks; }
+    public int getAnimatedCount() { return animated.size(); }
+
+    /**
+     * Something the clock ticks (a sprite, a particle layer).
+     */
+    interface Animated
+    {
+        /**
+         * Moves to the current time (EDT).
+         * @param now The clock’s time in milliseconds.
+         */
+        void advance(long now);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,294 @@
+import javax.imageio.ImageIO; // Imports tools for decoding image files
+import javax.swing.ImageIcon; // Imports icons for labels
+import javax.swing.JLabel; // Imports labels that show sprites
+import javax.swing.SwingUtilities; // Imports helper for running UI updates on the EDT
+import java.awt.*; // Imports graphics configuration and drawing tools
+import java.awt.image.BufferedImage; // Imports in-memory images
+import java.io.File; // Imports File class to work with image files
+import java.util.ArrayList; // Imports the list of images evicted by one store
+import java.util.HashMap; // Imports map of loads in progress
+import java.util.HashSet; // Imports set of images that failed to load
+import java.util.Iterator; // Imports iterator used for eviction
+import java.util.LinkedHashMap; // Imports an ordered map used as the LRU cache
+import java.util.List; // Imports List interface
+import java.util.Map; // Imports Map interface
+import java.util.Set; // Imports Set interface
+import java.util.concurrent.CompletableFuture; // Imports results that arrive later
+import java.util.concurrent.CopyOnWriteArrayList; // Imports the thread-safe list of eviction listeners
+import java.util.concurrent.ExecutorService; // Imports the loader thread pool
+import java.util.concurrent.Executors; // Imports factory for the loader threads
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters for metrics
+import java.util.function.Consumer; // Imports the eviction callback type
+
+/**
+ * Central image cache for Cooking with Carby.
+ * Sprites are decoded on a small background pool (known ones are preloaded at startup),
+ * converted to screen-compatible images and kept in an LRU cache with a byte budget.
+ * Screens ask for a sprite with loadInto, which never touches the disk on the EDT:
+ * a cached sprite shows at once, anything else fills in when its load finishes.
+ * Anything that keeps images of its own (e.g., the SpriteAtlas) listens for evictions
+ * with onEvict and lets go of them, so the budget covers every cached image.
+ */
+public class AssetManager
+{
+    // Sprites the game is known to show, preloaded at startup
+    static final String[] KNOWN_SPRITES = {
+        "src/resources/SpicyChiliDemon.png", "src/resources/SushiSamurai.png",
+        "src/resources/PretentiousGourmetCritic.png", "Carby.png",
+        "src/resources/carby.png", "src/resources/homecook.png", "src/resources/critic.png"
+    };
+
+    private static final long DEFAULT_BUDGET = Long.getLong("carby.assetBudgetMB", 64) * 1024 * 1024; // Bytes
+    private static final AssetManager shared = new AssetManager(DEFAULT_BUDGET, 2); // The game’s asset manager
+
+    private final long budgetBytes; // Maximum bytes of decoded images kept in memory
+    private final ExecutorService loaders; // Background threads that read and decode files
+    private final LinkedHashMap<String, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true); // Access-ordered for LRU
+    private final Map<String, CompletableFuture<BufferedImage>> loading = new HashMap<>(); // Loads in progress
+    private final Set<String> missing = new HashSet<>(); // Paths that failed, so they aren’t retried every screen
+    private long cachedBytes; // Bytes currently held by the cache
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>(); // Told the path of every evicted image
+
+    // Metrics
+    private final AtomicLong hits = new AtomicLong(); // Requests served from memory
+    private final AtomicLong misses = new AtomicLong(); // Requests that had to wait for a load
+    private final AtomicLong loads = new AtomicLong(); // Files decoded
+    private final AtomicLong failures = new AtomicLong(); // Files that couldn’t be decoded
+    private final AtomicLong loadNanos = new AtomicLong(); // Total time spent decoding
+    private final AtomicLong evictions = new AtomicLong(); // Images dropped to stay under budget
+
+    /**
+     * Constructor: Creates an asset manager.
+     * @param budgetBytes Maximum bytes of decoded images to keep.
+     * @param threads Number of background loader threads.
+     */
+    public AssetManager(long budgetBytes, int threads)
+    {
+        this.budgetBytes = budgetBytes;
+        this.loaders = Executors.newFixedThreadPool(threads, r ->
+        {
+            Thread thread = new Thread(r, "asset-loader");
+            thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+            thread.setPriority(Thread.MIN_PRIORITY); // Stays out of the way of the UI
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the asset manager used by the game.
+     * @return The shared asset manager.
+     */
+    public static AssetManager shared() { return shared; }
+
+    /**
+     * Starts loading images in the background without waiting for them.
+     * @param paths The image paths to load.
+     */
+    public void preload(String... paths)
+    {
+        for (String path : paths) load(path);
+    }
+
+    /**
+     * Gets an image if it is already in memory.
+     * @param path The image path.
+     * @return The image, or null if it isn’t loaded (yet).
+     */
+    public BufferedImage getIfLoaded(String path)
+    {
+        synchronized (this)
+        {
+            BufferedImage image = cache.get(path); // Also marks it as recently used
+            if (image != null)
+            {
+                hits.incrementAndGet();
+                return image;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads an image in the background (or returns the cached one).
+     * @param path The image path.
+     * @return A future that completes with the image, or with null if it couldn’t be loaded.
+     */
+    public CompletableFuture<BufferedImage> load(String path)
+    {
+        synchronized (this)
+        {
+            BufferedImage image = cache.get(path);
+            if (image != null) return CompletableFuture.completedFuture(image);
+            if (missing.contains(path)) return CompletableFuture.completedFuture(null); // Known to be missing
+            CompletableFuture<BufferedImage> pending = loading.get(path);
+            if (pending != null) return pending; // Already on its way
+            CompletableFuture<BufferedImage> future = CompletableFuture.supplyAsync(() -> decode(path), loaders);
+            loading.put(path, future);
+            future.thenAccept(loaded -> store(path, loaded));
+            return future;
+        }
+    }
+
+    /**
+     * Registers a listener told about every image evicted to stay under budget, so caches
+     * built on top of this one can drop their references too. Listeners run on a loader
+     * thread, after the cache's lock is released.
+     * @param listener Called with the evicted image's path.
+     */
+    public void onEvict(Consumer<String> listener)
+    {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Shows an image in a label without blocking: at once if cached, otherwise when it loads.
+     * Must be called on the EDT.
+     * @param label The label to show the image in.
+     * @param path The image path.
+     * @param missingText Text to show instead if the image can’t be loaded.
+     */
+    public void loadInto(JLabel label, String path, String missingText)
+    {
+        BufferedImage image = getIfLoaded(path);
+        if (image != null) // Cache hit: no waiting
+        {
+            label.setIcon(new ImageIcon(image));
+            return;
+        }
+        misses.incrementAndGet();
+        label.setIcon(null); // Blank until the load finishes
+        label.putClientProperty(AssetManager.class, path); // Remembers which load this label is waiting for
+        load(path).thenAccept(loaded -> SwingUtilities.invokeLater(() ->
+        {
+            if (!path.equals(label.getClientProperty(AssetManager.class))) return; // Label moved on to another image
+            if (loaded != null) label.setIcon(new ImageIcon(loaded));
+            else label.setText(missingText);
+        }));
+    }
+
+    /**
+     * Reads and prepares an image (runs on a loader thread).
+     */
+    private BufferedImage decode(String path)
+    {
+        long start = System.nanoTime();
+        try // Tries to decode the image (might fail if the file is missing)
+        {
+            BufferedImage source = ImageIO.read(new File(path));
+            if (source == null) // ImageIO returns null for unknown formats
+            {
+                throw new Exception("Unsupported image format");
+            }
+            loads.incrementAndGet();
+            return prepare(source, source.getWidth(), source.getHeight());
+        }
+        catch (Exception e) // Handles a missing or broken file (reported once per load)
+        {
+            failures.incrementAndGet();
+            System.err.println("Image not found at " + path + "."); // Prints error
+            return null;
+        }
+        finally
+        {
+            loadNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds a finished load to the cache and evicts old images until under budget.
+     */
+    private void store(String path, BufferedImage image)
+    {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this)
+        {
+            loading.remove(path);
+            if (image == null) // Remembers the failure instead of caching an image
+            {
+                missing.add(path);
+                return;
+            }
+            cache.put(path, image);
+            cachedBytes += sizeOf(image);
+            Iterator<Map.Entry<String, BufferedImage>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > budgetBytes && cache.size() > 1 && eldest.hasNext()) // Keeps at least the newest image
+            {
+                Map.Entry<String, BufferedImage> entry = eldest.next();
+                if (entry.getKey().equals(path)) continue;
+                cachedBytes -= sizeOf(entry.getValue());
+                eldest.remove();
+                evictions.incrementAndGet();
+                evicted.add(entry.getKey());
+            }
+        }
+        for (String gone : evicted) // Outside the lock, so listeners can load images again
+        {
+            for (Consumer<String> listener : evictionListeners) listener.accept(gone);
+        }
+    }
+
+    /**
+     * Converts an image to a screen-compatible image of the given size,
+     * so drawing it later is a straight copy with no format conversion or scaling.
+     * @param source The decoded image.
+     * @param width Width to scale to.
+     * @param height Height to scale to.
+     * @return The prepared image.
+     */
+    static BufferedImage prepare(BufferedImage source, int width, int height)
+    {
+        BufferedImage prepared;
+        if (GraphicsEnvironment.isHeadless()) // No screen to match, so use a plain image
+        {
+            prepared = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        else // Matches the screen’s pixel format so drawing needs no conversion
+        {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            prepared = config.createCompatibleImage(width, height, source.getColorModel().getTransparency());
+        }
+        Graphics2D g = prepared.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR); // Smooth scaling
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return prepared;
+    }
+
+    /**
+     * Estimates the memory an image uses (4 bytes per pixel).
+     */
+    private static long sizeOf(BufferedImage image)
+    {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    // Metrics
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getLoads() { return loads.get(); }
+    public long getFailures() { return failures.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public synchronized long getCachedBytes() { return cachedBytes; }
+    public long getBudgetBytes() { return budgetBytes; }
+
+    /**
+     * Gets the share of requests served straight from memory.
+     * @return The hit rate (0.0 to 1.0).
+     */
+    public double getHitRate()
+    {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Gets the average time spent reading and decoding one file.
+     * @return The mean load time in milliseconds.
+     */
+    public double getMeanLoadMillis()
+    {
+        long attempts = loads.get() + failures.get();
+        return attempts == 0 ? 0 : loadNanos.get() / 1e6 / attempts;
+    }
+}
\ No newline at end of file
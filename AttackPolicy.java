@@ -0,0 +1,48 @@
+/**
+ * Strategy for picking which attack (1-4) the player uses on a turn.
+ * Used by the balance tools and auto-battle in place of a human clicking buttons.
+ * Policies only see the player and both sides’ current HP, so they can also be
+ * evaluated on hypothetical states by the win-probability solver.
+ */
+interface AttackPolicy
+{
+    /**
+     * Chooses the next attack.
+     * @param player The attacking player (stats and level).
+     * @param playerHP The player’s current HP.
+     * @param enemyHP The enemy’s current HP.
+     * @return The attack type to use (1 to the number of unlocked attacks).
+     */
+    int chooseAttack(Player player, int playerHP, int enemyHP);
+
+    /**
+     * Gets the policy to use for a battle against an enemy (a policy that looks ahead needs
+     * the enemy’s counterattack). Call it once per battle.
+     * @param enemy The enemy about to be fought.
+     * @return The policy for that battle (this one, unless it depends on the enemy).
+     */
+    default AttackPolicy against(Enemy enemy) { return this; }
+
+    /**
+     * Always uses the unlocked attack with the highest base damage.
+     * Crits double every attack equally, so this also maximizes expected damage.
+     */
+    AttackPolicy STRONGEST = (player, playerHP, enemyHP) ->
+    {
+        int best = 1; // Starts with the first attack
+        int unlocked = BattleEngine.getUnlockedAttackCount(player.getLevel());
+        for (int attackType = 2; attackType <= unlocked; attackType++) // Checks every unlocked attack
+        {
+            if (BattleEngine.getBaseDamage(player, attackType) > BattleEngine.getBaseDamage(player, best))
+            {
+                best = attackType; // Keeps the stronger one
+            }
+        }
+        return best;
+    };
+
+    /**
+     * Searches ahead over crit and dodge rolls for the attack most likely to win (see AttackSearch).
+     */
+    AttackPolicy SEARCH = new AttackSearch();
+}
\ No newline at end of file
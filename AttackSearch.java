@@ -0,0 +1,241 @@
+import java.util.Arrays; // Imports the helper that empties the transposition table
+
+/**
+ * Look-ahead attack picker for auto-battle and the battle screen’s suggested move.
+ * An expectimax search: for each unlocked attack it averages over the rolls that follow
+ * (critical hit or not, then dodge or not) and plays the attack with the best chance of winning.
+ * The search deepens (doubling the turns looked ahead each time) until it reaches the end of the battle or runs out of its
+ * time budget (-Dcarby.searchMicros, default 500), then answers from the deepest search it finished.
+ * Once the matchup is fixed, a battle’s whole state is (player HP, enemy HP), so positions are kept
+ * in a small transposition table keyed on that pair and each is searched once per depth.
+ * Positions past the depth limit are scored with a quick estimate (turns the player can last
+ * against turns needed to win).
+ * With the current rules an attack only changes the damage dealt, so the search agrees with
+ * STRONGEST apart from ties; what it adds is the win chance of every attack, and it stays right
+ * if attacks ever differ in more than damage.
+ * A search is bound to one battle (see against) and used by one thread at a time; the table
+ * is kept from move to move, so later moves mostly find their positions already searched.
+ */
+class AttackSearch implements AttackPolicy
+{
+    static final long BUDGET_NANOS = Long.getLong("carby.searchMicros", 500) * 1000; // Time per move
+    static final int MAX_DEPTH = 120; // Turns looked ahead at most
+    private static final int TABLE_SIZE = 1 << 12; // Transposition table entries (a power of two)
+    private static final byte EXACT = Byte.MAX_VALUE; // Depth of an entry searched to the end of the battle
+    private static final double TIE = 1e-12; // Chances closer than this count as equal
+
+    private static final RuntimeException OUT_OF_TIME = new RuntimeException("Out of time", null, false, false) {}; // Thrown to stop a search (no stack trace)
+
+    private final int enemyAttack; // The bound enemy’s counterattack damage (-1 when unbound)
+    private final long budget; // Time per move (nanoseconds)
+    private long[] keys; // Position in each table slot (-1 when empty; allocated on first search)
+    private double[] values; // Its chance of winning
+    private byte[] depths; // How deep it was searched (EXACT if to the end)
+    private long deadline; // When the current search must stop
+    private int cutoffs; // Positions scored by estimate (or by a shallower entry) in the current search
+
+    /**
+     * Constructor: Creates an unbound search. It plays like STRONGEST until bound to an enemy with against.
+     */
+    AttackSearch()
+    {
+        this(-1, BUDGET_NANOS);
+    }
+
+    /**
+     * Constructor: Creates a search for battles against an enemy with the given counterattack.
+     * @param enemyAttack The enemy’s counterattack damage.
+     * @param budget Time per move in nanoseconds.
+     */
+    AttackSearch(int enemyAttack, long budget)
+    {
+        this.enemyAttack = enemyAttack;
+        this.budget = budget;
+    }
+
+    @Override
+    public AttackPolicy against(Enemy enemy)
+    {
+        return new AttackSearch(enemy.getAttackPower(), budget);
+    }
+
+    @Override
+    public int chooseAttack(Player player, int playerHP, int enemyHP)
+    {
+        if (enemyAttack < 0) return STRONGEST.chooseAttack(player, playerHP, enemyHP); // Not bound to an enemy
+        return suggest(player, playerHP, enemyHP).getBest();
+    }
+
+    /**
+     * Searches a position and rates every unlocked attack.
+     * @param player The player (stats and level; HP is taken from playerHP).
+     * @param playerHP The player’s current HP.
+     * @param enemyHP The enemy’s current HP.
+     * @return The chance of winning with each attack, and the best one.
+     */
+    public Suggestion suggest(Player player, int playerHP, int enemyHP)
+    {
+        if (enemyAttack < 0) throw new IllegalStateException("Not bound to an enemy");
+        if (keys == null)
+        {
+            keys = new long[TABLE_SIZE];
+            values = new double[TABLE_SIZE];
+            depths = new byte[TABLE_SIZE];
+            Arrays.fill(keys, -1L);
+        }
+        int unlocked = BattleEngine.getUnlockedAttackCount(player.getLevel());
+        double crit = chance(player.getCritChance());
+        double dodge = chance(player.getDodgeChance());
+        long start = System.nanoTime();
+        double[] chances = null; // Per attack, from the deepest finished search
+        int depth = 0;
+        boolean exact = false;
+        while (!exact && depth < MAX_DEPTH)
+        {
+            deadline = chances == null ? Long.MAX_VALUE : start + budget; // The first turn is always searched
+            cutoffs = 0;
+            double[] next = new double[unlocked];
+            try
+            {
+                for (int attack = 1; attack <= unlocked; attack++)
+                {
+                    next[attack - 1] = rate(player, crit, dodge, playerHP, enemyHP, attack, Math.min(MAX_DEPTH, depth * 2 + 1));
+                }
+            }
+            catch (RuntimeException e)
+            {
+                if (e != OUT_OF_TIME) throw e;
+                break; // Keeps the last finished depth
+            }
+            chances = next;
+            depth = Math.min(MAX_DEPTH, depth * 2 + 1); // 1, 3, 7, 15, ... turns
+            exact = cutoffs == 0; // Nothing was estimated, so this is the exact answer
+        }
+
+        int best = 1;
+        for (int attack = 2; attack <= unlocked; attack++) // Ties go to the stronger attack, as with STRONGEST
+        {
+            double gap = chances[attack - 1] - chances[best - 1];
+            if (gap > TIE || gap > -TIE && BattleEngine.getBaseDamage(player, attack) > BattleEngine.getBaseDamage(player, best))
+            {
+                best = attack;
+            }
+        }
+        return new Suggestion(chances, best, depth, exact, System.nanoTime() - start);
+    }
+
+    /**
+     * Rates one attack: its chance of winning, averaged over the crit and dodge rolls that follow.
+     */
+    private double rate(Player player, double crit, double dodge, int playerHP, int enemyHP, int attack, int depth)
+    {
+        int damage = Math.max(0, BattleEngine.getBaseDamage(player, attack)); // Negative damage only with heavy debuffs
+        int hit = Math.max(0, enemyAttack);
+        double win = 0.0;
+        for (int c = 0; c < 2; c++) // c = 1 for a critical hit, 0 otherwise
+        {
+            double chance = c == 1 ? crit : 1.0 - crit;
+            if (chance == 0.0) continue;
+            int after = enemyHP - (c == 1 ? damage * 2 : damage);
+            if (after <= 0) // Enemy defeated, no counterattack
+            {
+                win += chance;
+                continue;
+            }
+            if (dodge > 0.0) win += chance * dodge * search(player, crit, dodge, playerHP, after, depth - 1);
+            if (dodge < 1.0) win += chance * (1.0 - dodge) * search(player, crit, dodge, playerHP - hit, after, depth - 1);
+        }
+        return win;
+    }
+
+    /**
+     * Finds a position’s chance of winning with the best attack, looking some turns ahead.
+     */
+    private double search(Player player, double crit, double dodge, int playerHP, int enemyHP, int depth)
+    {
+        if (playerHP <= 0) return 0.0; // Lost
+        if (depth == 0) // Too deep: estimate
+        {
+            cutoffs++;
+            return estimate(player, crit, dodge, playerHP, enemyHP);
+        }
+        long key = (long) playerHP << 32 | enemyHP;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 52); // Top 12 bits pick the slot
+        if (keys[slot] == key)
+        {
+            if (depths[slot] == EXACT) return values[slot];
+            if (depths[slot] >= depth) // Searched deep enough already, but not to the end
+            {
+                cutoffs++;
+                return values[slot];
+            }
+        }
+        if (System.nanoTime() > deadline) throw OUT_OF_TIME;
+
+        int before = cutoffs;
+        int unlocked = BattleEngine.getUnlockedAttackCount(player.getLevel());
+        double best = 0.0;
+        for (int attack = 1; attack <= unlocked; attack++)
+        {
+            best = Math.max(best, rate(player, crit, dodge, playerHP, enemyHP, attack, depth));
+        }
+        keys[slot] = key; // Always replaces: the newest position is the likeliest to come up again
+        values[slot] = best;
+        depths[slot] = cutoffs == before ? EXACT : (byte) Math.min(depth, EXACT - 1);
+        return best;
+    }
+
+    /**
+     * Estimates a position’s chance of winning without searching: the share of turns the
+     * player can last out of those it takes, with the strongest attack, for one side to drop.
+     */
+    private double estimate(Player player, double crit, double dodge, int playerHP, int enemyHP)
+    {
+        int damage = Math.max(0, BattleEngine.getBaseDamage(player, STRONGEST.chooseAttack(player, playerHP, enemyHP)));
+        double dealt = damage * (1.0 + crit); // Expected damage per turn
+        double taken = Math.max(0, enemyAttack) * (1.0 - dodge); // Expected damage taken per turn
+        if (dealt == 0.0) return taken == 0.0 ? 0.5 : 0.0;
+        if (taken == 0.0) return 1.0;
+        double turnsToWin = Math.ceil(enemyHP / dealt);
+        double turnsToLose = Math.ceil(playerHP / taken);
+        return turnsToLose / (turnsToLose + turnsToWin);
+    }
+
+    /**
+     * Converts a percent chance into a probability clamped to 0.0 - 1.0.
+     */
+    private static double chance(int percent)
+    {
+        return Math.max(0, Math.min(100, percent)) / 100.0; // Engine rolls nextInt(100) < percent
+    }
+
+    /**
+     * The result of a search: how each attack rates from one position.
+     */
+    static class Suggestion
+    {
+        private final double[] chances; // Chance of winning with each attack (index 0 = attack 1)
+        private final int best; // The attack to use (1-4)
+        private final int depth; // Turns looked ahead
+        private final boolean exact; // Whether the search reached the end of the battle on every line
+        private final long nanos; // Time the search took
+
+        Suggestion(double[] chances, int best, int depth, boolean exact, long nanos)
+        {
+            this.chances = chances;
+            this.best = best;
+            this.depth = depth;
+            this.exact = exact;
+            this.nanos = nanos;
+        }
+
+        // Getters
+        public int getBest() { return best; }
+        public double getChance(int attack) { return chances[attack - 1]; }
+        public double getBestChance() { return chances[best - 1]; }
+        public int getAttackCount() { return chances.length; }
+        public int getDepth() { return depth; }
+        public boolean isExact() { return exact; }
+        public long getNanos() { return nanos; }
+    }
+}
\ No newline at end of file
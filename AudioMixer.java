@@ -0,0 +1,398 @@
+import javax.sound.sampled.*; // Imports tools for opening the audio line
+import java.util.Arrays; // Imports helper for clearing the mix buffer
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.concurrent.locks.LockSupport; // Imports parking for the silent clock
+
+/**
+ * Software audio mixer for Cooking with Carby.
+ * One mixer thread sums every playing voice (music and sound effects) into a single
+ * SourceDataLine, so the game holds exactly one audio line no matter how many sounds overlap.
+ * Voices come from a fixed pool and play samples that were already decoded into the
+ * mixer’s format, so starting a sound allocates nothing. Each voice belongs to a bus
+ * (MUSIC or SFX) whose gain is the volume slider’s value; gain changes are ramped over
+ * one block to avoid clicks. Long sounds like music are mixed as Streams instead of
+ * voices: they are pulled a block at a time and can be faded in and out over time,
+ * which is how tracks crossfade. Without an audio device the mixer keeps time silently,
+ * so sounds still "finish" and their callbacks still run.
+ */
+public class AudioMixer
+{
+    static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false); // 44.1 kHz, 16-bit, stereo
+    static final int MUSIC = 0; // Bus for background and combat music
+    static final int SFX = 1; // Bus for sound effects
+    private static final int BUS_COUNT = 2;
+    private static final int BLOCK_FRAMES = 512; // Frames mixed per pass (about 12 ms)
+    private static final int LINE_BUFFER_FRAMES = 2048; // Line buffer (about 46 ms of latency)
+    private static final int MAX_VOICES = 16; // Maximum sounds playing at once
+    private static final int MAX_STREAMS = 4; // Maximum streams attached at once
+
+    private static final AudioMixer shared = new AudioMixer(); // The game’s mixer
+
+    private final Voice[] voices = new Voice[MAX_VOICES]; // The voice pool
+    private final StreamSlot[] streams = new StreamSlot[MAX_STREAMS]; // Attached streams (guarded by streams)
+    private final short[] streamBlock = new short[BLOCK_FRAMES * 2]; // One block read from a stream
+    private final float[] busGain = new float[BUS_COUNT]; // Requested gain per bus (guarded by busGain)
+    private final float[] appliedGain = new float[BUS_COUNT]; // Gain the mixer thread is currently using
+    private final float[] mix = new float[BLOCK_FRAMES * 2]; // Sum of all voices for one block
+    private final byte[] output = new byte[BLOCK_FRAMES * 4]; // The block as 16-bit little-endian bytes
+    private final AtomicLong dropped = new AtomicLong(); // Sounds skipped because every voice was busy
+    private final AtomicLong blocks = new AtomicLong(); // Blocks mixed so far
+    private volatile SourceDataLine line; // The one audio line (null when playing silently)
+
+    /**
+     * Constructor: Creates a mixer and starts its thread.
+     */
+    public AudioMixer()
+    {
+        for (int i = 0; i < MAX_VOICES; i++)
+        {
+            voices[i] = new Voice();
+        }
+        for (int i = 0; i < MAX_STREAMS; i++)
+        {
+            streams[i] = new StreamSlot();
+        }
+        Arrays.fill(busGain, 1.0f);
+        Arrays.fill(appliedGain, 1.0f);
+        Thread thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+        thread.setPriority(Thread.MAX_PRIORITY); // Audio gaps are more noticeable than a late repaint
+        thread.start();
+    }
+
+    /**
+     * Gets the mixer used by the game.
+     * @return The shared mixer.
+     */
+    public static AudioMixer shared() { return shared; }
+
+    /**
+     * Sets a bus’s volume (replaces per-Clip decibel math).
+     * @param bus MUSIC or SFX.
+     * @param volume Volume from 0.0 to 1.0.
+     */
+    public void setBusGain(int bus, float volume)
+    {
+        synchronized (busGain)
+        {
+            busGain[bus] = Math.max(0f, Math.min(1f, volume));
+        }
+    }
+
+    /**
+     * Starts a voice.
+     * @param samples Interleaved stereo samples in the mixer’s format (not copied; must not change).
+     * @param bus MUSIC or SFX.
+     * @param gain The voice’s own volume from 0.0 to 1.0.
+     * @param loop Whether to loop until stopped.
+     * @param onDone Called on the mixer thread when the voice ends or is stopped; keep it short. May be null.
+     * @return A handle for stop(), or -1 if every voice was busy (onDone is not called).
+     */
+    public long play(short[] samples, int bus, float gain, boolean loop, Runnable onDone)
+    {
+        synchronized (voices)
+        {
+            for (int i = 0; i < MAX_VOICES; i++)
+            {
+                Voice voice = voices[i];
+                if (voice.playing) continue;
+                voice.generation++;
+                voice.samples = samples;
+                voice.position = 0;
+                voice.bus = bus;
+                voice.gain = gain;
+                voice.loop = loop;
+                voice.onDone = onDone;
+                voice.stopRequested = false;
+                voice.playing = true; // Volatile write publishes the fields above to the mixer thread
+                return (long) voice.generation * MAX_VOICES + i;
+            }
+        }
+        dropped.incrementAndGet(); // Voice limit reached
+        return -1;
+    }
+
+    /**
+     * Stops a voice at the next block (does nothing if it already ended).
+     * @param handle The handle from play().
+     */
+    public void stop(long handle)
+    {
+        if (handle < 0) return;
+        synchronized (voices)
+        {
+            Voice voice = voices[(int) (handle % MAX_VOICES)];
+            if (voice.playing && voice.generation == handle / MAX_VOICES) voice.stopRequested = true;
+        }
+    }
+
+    /**
+     * Fades a stream on the MUSIC bus to a new gain, attaching it first if needed.
+     * A stream faded to zero stays attached but isn’t read, so it keeps its place.
+     * @param stream The stream (e.g., a MusicTrack).
+     * @param gain The gain to end at, from 0.0 to 1.0.
+     * @param milliseconds How long the fade takes (0 for a jump).
+     */
+    public void fadeTo(Stream stream, float gain, int milliseconds)
+    {
+        int fadeBlocks = Math.max(1, (int) (milliseconds * FORMAT.getSampleRate() / 1000 / BLOCK_FRAMES));
+        synchronized (streams)
+        {
+            StreamSlot free = null;
+            for (StreamSlot slot : streams)
+            {
+                if (slot.stream == stream)
+                {
+                    slot.fade(gain, fadeBlocks);
+                    return;
+                }
+                if (slot.stream == null && free == null) free = slot;
+            }
+            if (free == null) // Every slot taken: reuse a silent one
+            {
+                for (StreamSlot slot : streams)
+                {
+                    if (slot.gain == 0f && slot.target == 0f) free = slot;
+                }
+            }
+            if (free == null)
+            {
+                dropped.incrementAndGet();
+                return;
+            }
+            free.stream = stream;
+            free.gain = 0f;
+            free.fade(gain, fadeBlocks);
+        }
+    }
+
+    /**
+     * Opens the line, then mixes blocks forever (the mixer thread).
+     */
+    private void run()
+    {
+        openLine();
+        long blockNanos = (long) (BLOCK_FRAMES * 1e9 / FORMAT.getSampleRate());
+        long nextBlock = System.nanoTime();
+        while (true)
+        {
+            mixBlock();
+            if (line != null)
+            {
+                line.write(output, 0, output.length); // Blocks until the line has room, which paces the mixer
+            }
+            else // No device: keep real time so sounds still end on schedule
+            {
+                nextBlock += blockNanos;
+                LockSupport.parkNanos(nextBlock - System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Opens the audio line, or falls back to silent playback.
+     */
+    private void openLine()
+    {
+        try
+        {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, LINE_BUFFER_FRAMES * FORMAT.getFrameSize());
+            line.start();
+        }
+        catch (Exception e) // Catches errors (e.g., no audio device)
+        {
+            System.err.println("No audio line available, playing silently - " + e.getMessage());
+            line = null;
+        }
+    }
+
+    /**
+     * Sums every playing voice into the output buffer.
+     */
+    private void mixBlock()
+    {
+        Arrays.fill(mix, 0f);
+        float musicStart = appliedGain[MUSIC], sfxStart = appliedGain[SFX];
+        float musicEnd, sfxEnd;
+        synchronized (busGain)
+        {
+            musicEnd = busGain[MUSIC];
+            sfxEnd = busGain[SFX];
+        }
+        for (Voice voice : voices)
+        {
+            if (!voice.playing) continue;
+            if (voice.stopRequested)
+            {
+                finish(voice);
+                continue;
+            }
+            float from = (voice.bus == MUSIC ? musicStart : sfxStart) * voice.gain;
+            float to = (voice.bus == MUSIC ? musicEnd : sfxEnd) * voice.gain;
+            float step = (to - from) / BLOCK_FRAMES; // Ramps the gain across the block
+            short[] samples = voice.samples;
+            int position = voice.position;
+            for (int frame = 0; frame < BLOCK_FRAMES; frame++)
+            {
+                if (position >= samples.length)
+                {
+                    if (!voice.loop || samples.length == 0)
+                    {
+                        break;
+                    }
+                    position = 0; // Loops back to the start
+                }
+                float gain = from + step * frame;
+                mix[frame * 2] += samples[position] * gain;
+                mix[frame * 2 + 1] += samples[position + 1] * gain;
+                position += 2;
+            }
+            voice.position = position;
+            if (position >= samples.length && !voice.loop) finish(voice);
+        }
+        mixStreams(musicStart, musicEnd);
+        appliedGain[MUSIC] = musicEnd;
+        appliedGain[SFX] = sfxEnd;
+
+        for (int i = 0; i < mix.length; i++) // Clamps and packs as 16-bit little-endian
+        {
+            int sample = (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            output[i * 2] = (byte) sample;
+            output[i * 2 + 1] = (byte) (sample >> 8);
+        }
+        blocks.incrementAndGet();
+    }
+
+    /**
+     * Pulls one block from every audible stream and adds it to the mix.
+     * @param busStart MUSIC bus gain at the start of the block.
+     * @param busEnd MUSIC bus gain at the end of the block.
+     */
+    private void mixStreams(float busStart, float busEnd)
+    {
+        synchronized (streams)
+        {
+            for (StreamSlot slot : streams)
+            {
+                if (slot.stream == null || (slot.gain == 0f && slot.target == 0f)) continue; // Silent: leave it parked
+                float fadeStart = slot.gain;
+                float fadeEnd = slot.advance();
+                float from = busStart * fadeStart;
+                float step = (busEnd * fadeEnd - from) / BLOCK_FRAMES;
+                slot.stream.read(streamBlock, streamBlock.length);
+                for (int frame = 0; frame < BLOCK_FRAMES; frame++)
+                {
+                    float gain = from + step * frame;
+                    mix[frame * 2] += streamBlock[frame * 2] * gain;
+                    mix[frame * 2 + 1] += streamBlock[frame * 2 + 1] * gain;
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees a voice and runs its callback (on the mixer thread).
+     */
+    private void finish(Voice voice)
+    {
+        Runnable onDone = voice.onDone;
+        voice.onDone = null;
+        voice.samples = null;
+        voice.playing = false; // Volatile write hands the voice back to play()
+        if (onDone != null)
+        {
+            try
+            {
+                onDone.run();
+            }
+            catch (RuntimeException e) // A broken callback must not stop the music
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Gets how many sounds were skipped because every voice was busy.
+     * @return The dropped sound count.
+     */
+    public long getDropped() { return dropped.get(); }
+
+    /**
+     * Gets how many blocks the mixer has produced.
+     * @return The block count.
+     */
+    public long getBlocks() { return blocks.get(); }
+
+    /**
+     * Checks whether the mixer has a real audio line.
+     * @return False when playing silently.
+     */
+    public boolean hasLine() { return line != null; }
+
+    /**
+     * A source the mixer pulls samples from a block at a time (e.g., streamed music).
+     */
+    interface Stream
+    {
+        /**
+         * Fills a buffer with the next samples (runs on the mixer thread, so it must not block).
+         * @param buffer Where to put interleaved stereo samples in the mixer’s format.
+         * @param count How many samples to write.
+         */
+        void read(short[] buffer, int count);
+    }
+
+    /**
+     * One attached stream and its fade.
+     */
+    private static class StreamSlot
+    {
+        Stream stream; // The stream (or null if the slot is free)
+        float gain; // Current fade gain
+        float target; // Gain the fade is heading to
+        float step; // Gain change per block
+
+        /**
+         * Starts a fade.
+         */
+        void fade(float to, int blocks)
+        {
+            target = Math.max(0f, Math.min(1f, to));
+            step = (target - gain) / blocks;
+        }
+
+        /**
+         * Moves the fade on by one block.
+         * @return The gain at the end of the block.
+         */
+        float advance()
+        {
+            gain += step;
+            if ((step >= 0 && gain >= target) || (step < 0 && gain <= target)) // Fade finished
+            {
+                gain = target;
+                step = 0f;
+            }
+            return gain;
+        }
+    }
+
+    /**
+     * One slot in the voice pool.
+     * Fields are written by play() before the volatile playing flag and read by the mixer after it.
+     */
+    private static class Voice
+    {
+        volatile boolean playing; // Whether the mixer owns this voice
+        volatile boolean stopRequested; // Set by stop(), checked once per block
+        int generation; // Bumped on every play(), so old handles can’t stop a new sound
+        short[] samples; // Interleaved stereo samples
+        int position; // Next sample index
+        int bus; // MUSIC or SFX
+        float gain; // The voice’s own volume
+        boolean loop; // Whether to loop
+        Runnable onDone; // Callback when the voice ends
+    }
+}
\ No newline at end of file
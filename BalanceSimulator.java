@@ -0,0 +1,232 @@
+import java.util.SplittableRandom; // Imports the splittable generator that seeds each task’s battles
+import java.util.concurrent.ForkJoinPool; // Imports the fork/join pool that spreads work over all cores
+import java.util.concurrent.RecursiveTask; // Imports fork/join tasks that return a result
+
+/**
+ * Monte Carlo balance simulator for Cooking with Carby.
+ * Runs a batch of headless battles (via BattleEngine) for every combination of
+ * class type, level 1-10 and enemy type (including the Carby boss), spread over
+ * all cores with fork/join, and reports win rate, mean turns and HP remaining per cell.
+ * Every task splits its own random stream from the run seed, so workers never share
+ * a generator and the whole matrix (and every battle in it) is reproducible.
+ */
+public class BalanceSimulator
+{
+    static final String[] CLASS_TYPES = { "Sous Chef", "Pastry Artist", "Grill Master" }; // Playable classes
+    static final int MAX_LEVEL = 10; // Player level cap
+    static final int MAX_TURNS = 1000; // Safety cap so a stalemate can’t run forever
+    private static final int BATTLES_PER_TASK = 4096; // Battles a single task runs before it stops splitting
+
+    private final int battlesPerCell; // How many battles to run per (class, level, enemy) cell
+    private final AttackPolicy policy; // How the simulated player picks attacks
+    private final long seed; // Seed the whole run is derived from
+
+    /**
+     * Constructor: Sets up a simulator.
+     * @param battlesPerCell How many battles to run for each cell of the matrix.
+     * @param policy The attack policy the simulated player follows.
+     * @param seed The run seed (the same seed reproduces the same results).
+     */
+    public BalanceSimulator(int battlesPerCell, AttackPolicy policy, long seed)
+    {
+        this.battlesPerCell = battlesPerCell;
+        this.policy = policy;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the full matrix of battles on the common fork/join pool.
+     * @return One Cell per (class, level, enemy type) combination.
+     */
+    public Cell[] run()
+    {
+        Cell[] cells = new Cell[CLASS_TYPES.length * MAX_LEVEL * EnemyFactory.ENEMY_TYPE_COUNT];
+        SplittableRandom root = new SplittableRandom(seed); // Each cell gets its own stream, in a fixed order
+        int index = 0;
+        for (String classType : CLASS_TYPES) // Every class
+        {
+            for (int level = 1; level <= MAX_LEVEL; level++) // Every level
+            {
+                for (int enemyType = 0; enemyType < EnemyFactory.ENEMY_TYPE_COUNT; enemyType++) // Every enemy
+                {
+                    cells[index++] = new Cell(classType, level, enemyType, root.split());
+                }
+            }
+        }
+        ForkJoinPool.commonPool().invoke(new MatrixTask(cells, 0, cells.length));
+        return cells;
+    }
+
+    /**
+     * Runs a single battle to completion.
+     * @param player The player (healed to full before the fight).
+     * @param enemy The enemy to fight.
+     * @param policy How the player picks attacks.
+     * @param battleSeed The seed for the battle’s rolls.
+     * @return The finished engine, holding turns and final HP.
+     */
+    static BattleEngine runBattle(Player player, Enemy enemy, AttackPolicy policy, long battleSeed)
+    {
+        BattleEngine engine = new BattleEngine(player, enemy, battleSeed);
+        AttackPolicy tactic = policy.against(enemy); // e.g. a search needs the enemy’s counterattack
+        engine.startBattle(); // Heals player to full HP
+        while (!engine.isOver() && engine.getTurns() < MAX_TURNS) // Fights until someone drops
+        {
+            engine.resolveTurn(tactic.chooseAttack(player, player.getHP(), enemy.getHP()));
+        }
+        return engine;
+    }
+
+    /**
+     * Creates a fresh player of the given class, levelled up to the given level.
+     * @param classType The player’s class (e.g., "Sous Chef").
+     * @param level The level to reach (1-10).
+     * @return The new player.
+     */
+    static Player createPlayer(String classType, int level)
+    {
+        Player player = new Player("Sim", classType);
+        while (player.getLevel() < level) // Levels up one step at a time, like in play
+        {
+            player.levelUp();
+        }
+        return player;
+    }
+
+    /**
+     * Splits the matrix of cells in half until one cell is left, then splits that cell’s battles.
+     */
+    private class MatrixTask extends RecursiveTask<Void>
+    {
+        private final Cell[] cells;
+        private final int from, to; // Range of cells this task covers
+
+        MatrixTask(Cell[] cells, int from, int to)
+        {
+            this.cells = cells;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute()
+        {
+            if (to - from > 1) // More than one cell: split the range
+            {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MatrixTask(cells, from, mid), new MatrixTask(cells, mid, to));
+                return null;
+            }
+            Cell cell = cells[from];
+            cell.add(new BattleTask(cell, battlesPerCell, cell.rand).compute()); // Runs (and forks) the cell’s battles
+            return null;
+        }
+    }
+
+    /**
+     * Runs a number of battles for one cell, splitting into subtasks while the count is large.
+     */
+    private class BattleTask extends RecursiveTask<long[]>
+    {
+        private final Cell cell;
+        private final int battles; // Battles this task is responsible for
+        private final SplittableRandom rand; // This task’s own stream of battle seeds
+
+        BattleTask(Cell cell, int battles, SplittableRandom rand)
+        {
+            this.cell = cell;
+            this.battles = battles;
+            this.rand = rand;
+        }
+
+        @Override
+        protected long[] compute()
+        {
+            if (battles > BATTLES_PER_TASK) // Too many for one task: split in half
+            {
+                BattleTask left = new BattleTask(cell, battles / 2, rand.split()); // Left half gets a split stream
+                BattleTask right = new BattleTask(cell, battles - battles / 2, rand);
+                left.fork(); // Runs the left half on another worker
+                long[] totals = right.compute();
+                long[] leftTotals = left.join();
+                for (int i = 0; i < totals.length; i++) totals[i] += leftTotals[i];
+                return totals;
+            }
+
+            long wins = 0, turns = 0, hpRemaining = 0;
+            Player player = createPlayer(cell.classType, cell.level); // One player reused for every battle
+            for (int i = 0; i < battles; i++)
+            {
+                Enemy enemy = EnemyFactory.createEnemy(cell.enemyType, cell.level);
+                BattleEngine engine = runBattle(player, enemy, policy, rand.nextLong()); // Replayable from this seed
+                if (engine.isEnemyDefeated()) wins++;
+                turns += engine.getTurns();
+                hpRemaining += player.getHP();
+            }
+            return new long[] { battles, wins, turns, hpRemaining };
+        }
+    }
+
+    /**
+     * Aggregated results for one (class, level, enemy type) combination.
+     */
+    static class Cell
+    {
+        final String classType; // Player class
+        final int level; // Player level
+        final int enemyType; // EnemyFactory type code
+        private final SplittableRandom rand; // Stream the cell’s battles are seeded from
+        private long battles, wins, turns, hpRemaining; // Running totals
+
+        Cell(String classType, int level, int enemyType, SplittableRandom rand)
+        {
+            this.classType = classType;
+            this.level = level;
+            this.enemyType = enemyType;
+            this.rand = rand;
+        }
+
+        /**
+         * Adds a batch of totals ({battles, wins, turns, hpRemaining}) to this cell.
+         */
+        synchronized void add(long[] totals)
+        {
+            battles += totals[0];
+            wins += totals[1];
+            turns += totals[2];
+            hpRemaining += totals[3];
+        }
+
+        public synchronized long getBattles() { return battles; }
+        public synchronized double getWinRate() { return battles == 0 ? 0 : (double) wins / battles; }
+        public synchronized double getMeanTurns() { return battles == 0 ? 0 : (double) turns / battles; }
+        public synchronized double getMeanHPRemaining() { return battles == 0 ? 0 : (double) hpRemaining / battles; }
+    }
+
+    /**
+     * Runs the full balance matrix and prints it as a table.
+     * @param args Optional: total number of battles (default 10,000,000), then a run seed.
+     */
+    public static void main(String[] args)
+    {
+        long totalBattles = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : GameRandom.session().getSeed();
+        int cellCount = CLASS_TYPES.length * MAX_LEVEL * EnemyFactory.ENEMY_TYPE_COUNT;
+        int perCell = (int) Math.max(1, totalBattles / cellCount);
+
+        long start = System.nanoTime();
+        Cell[] cells = new BalanceSimulator(perCell, AttackPolicy.STRONGEST, seed).run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-14s %5s %-28s %8s %8s %8s%n", "Class", "Level", "Enemy", "Win %", "Turns", "HP left");
+        for (Cell cell : cells)
+        {
+            String enemyName = EnemyFactory.createEnemy(cell.enemyType, cell.level).getName();
+            System.out.printf("%-14s %5d %-28s %7.1f%% %8.2f %8.1f%n", cell.classType, cell.level, enemyName,
+                    cell.getWinRate() * 100, cell.getMeanTurns(), cell.getMeanHPRemaining());
+        }
+        System.out.printf("%,d battles in %.2f s (%d cores)%n", (long) perCell * cellCount, seconds,
+                Runtime.getRuntime().availableProcessors());
+        System.out.println("Seed: " + seed);
+    }
+}
\ No newline at end of file
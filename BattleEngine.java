@@ -0,0 +1,291 @@
+/**
+ * Headless battle engine for Cooking with Carby.
+ * This class resolves turns between a Player and an Enemy as plain state changes
+ * (damage rolls, critical hits, dodges and counterattacks) without any Swing,
+ * sound or pauses, so it can run off the EDT for balancing or on a server.
+ * Each turn returns a TurnResult describing what happened, which Combat then presents.
+ * All rolls come from one seeded generator, so a battle can be replayed from its seed.
+ * The engine also keeps a rolling hash of the battle state (HP, stats, turn and how many
+ * rolls were drawn), updated at the start, after every turn and after experience is awarded,
+ * so a replay can be checked turn by turn without storing the whole state.
+ */
+public class BattleEngine
+{
+    // Instance variables (data the engine keeps track of)
+    private final Player player; // The player’s character (stats, HP, etc.)
+    private final Enemy enemy; // The enemy being fought (HP, attack power, etc.)
+    private final long seed; // Seed the battle’s rolls come from
+    private final GameRandom.Counting rand; // Random source for crit, dodge and enemy attack rolls (counts its draws)
+    private final int enemyInitialHP; // Stores enemy’s starting HP for XP calculation
+    private int turns; // Number of turns resolved so far
+    private int expGained; // XP awarded at the end of the battle (0 until then)
+    private boolean leveledUp; // Whether that XP caused a level up
+    private long stateHash; // Rolling hash of the state after each step
+
+    /**
+     * Constructor: Sets up a battle between a player and an enemy.
+     * @param player The player fighting in the battle.
+     * @param enemy The enemy being fought.
+     */
+    public BattleEngine(Player player, Enemy enemy)
+    {
+        this(player, enemy, GameRandom.session().nextBattleSeed()); // Takes the next seed from the session
+    }
+
+    /**
+     * Constructor: Sets up a battle whose rolls come from the given seed.
+     * @param player The player fighting in the battle.
+     * @param enemy The enemy being fought.
+     * @param seed The battle seed (the same seed replays the same rolls).
+     */
+    public BattleEngine(Player player, Enemy enemy, long seed)
+    {
+        this.player = player; // Assigns the player object
+        this.enemy = enemy; // Assigns the enemy object
+        this.seed = seed; // Remembers the seed for replays
+        this.rand = GameRandom.forBattle(seed); // Creates the battle’s random source
+        this.enemyInitialHP = enemy.getHP(); // Saves enemy’s initial HP
+        this.stateHash = seed; // Every step is folded in from here
+    }
+
+    /**
+     * Returns an array of attack names based on a class type.
+     * @param classType The player’s class (e.g., "Sous Chef").
+     * @return A String array of 4 attack names.
+     */
+    public static String[] getClassAttacks(String classType)
+    {
+        switch (classType) // Checks the class type
+        {
+            case "Sous Chef": // If Sous Chef
+                return new String[] {"Chop", "Sauté", "Dice", "Simmer"}; // Returns Sous Chef attacks
+            case "Pastry Artist": // If Pastry Artist
+                return new String[] {"Whisk", "Frost", "Fold", "Bake"}; // Returns Pastry Artist attacks
+            case "Grill Master": // If Grill Master
+                return new String[] {"Grill", "Sear", "Baste", "Smoke"}; // Returns Grill Master attacks
+            default: // If no class matches (fallback)
+                return new String[] {"Slice", "Flambé", "Cut", "Roast"}; // Returns default attacks
+        }
+    }
+
+    /**
+     * Returns how many attacks a player has unlocked at a given level.
+     * The third attack unlocks at level 4 and the fourth at level 7.
+     * @param level The player’s level.
+     * @return The number of usable attacks (2 to 4).
+     */
+    public static int getUnlockedAttackCount(int level)
+    {
+        if (level >= 7) return 4; // All four attacks
+        if (level >= 4) return 3; // Third attack unlocked
+        return 2; // Base attacks only
+    }
+
+    /**
+     * Calculates the base (non-critical) damage of an attack.
+     * @param player The attacking player.
+     * @param attackType The type of attack (1-4).
+     * @return The base damage before critical hits.
+     */
+    public static int getBaseDamage(Player player, int attackType)
+    {
+        switch (attackType)
+        {
+            case 1: return player.getPrecision() * 2;
+            case 2: return player.getCreativity() * 3;
+            case 3: return player.getSpeed() * 2 + 5;
+            case 4: return player.getStamina() * 4;
+            default: return 10;
+        }
+    }
+
+    /**
+     * Starts the battle by healing the player to full HP.
+     */
+    public void startBattle()
+    {
+        player.restoreHealth(player.getMaxHP() - player.getHP()); // Heals player to max HP
+        hashState(); // Covers the enemy’s scaled stats before any turn
+    }
+
+    /**
+     * Resolves one full turn: the player’s attack and the enemy’s counterattack (if alive).
+     * @param attackType The type of attack (1-4) to calculate damage.
+     * @return A TurnResult describing the outcome of the turn.
+     * @throws IllegalStateException If the battle is already over.
+     */
+    public TurnResult resolveTurn(int attackType)
+    {
+        if (isOver()) throw new IllegalStateException("The battle is already over");
+        turns++; // Counts the turn
+
+        // Check for critical hit (precision * 2% chance)
+        int baseDamage = getBaseDamage(player, attackType);
+        boolean isCritical = rand.nextInt(100) < player.getCritChance();
+        int finalDamage = isCritical ? baseDamage * 2 : baseDamage;
+        enemy.takeDamage(finalDamage);
+
+        // Enemy counterattack if alive
+        boolean counterattack = enemy.getHP() > 0;
+        boolean didDodge = false;
+        String enemyAttack = null;
+        int enemyDamage = 0;
+        if (counterattack)
+        {
+            // Check for dodge (speed * 3% chance)
+            didDodge = rand.nextInt(100) < player.getDodgeChance();
+            if (!didDodge)
+            {
+                enemyAttack = enemy.chooseAttack(rand);
+                enemyDamage = enemy.getAttackPower();
+                player.takeDamage(enemyDamage);
+            }
+        }
+
+        hashState();
+        return new TurnResult(attackType, isCritical, finalDamage, counterattack, didDodge, enemyAttack, enemyDamage, stateHash);
+    }
+
+    /**
+     * Awards experience points to the player based on enemy HP and level.
+     * @return The amount of experience gained.
+     */
+    public int awardExperience()
+    {
+        int oldLevel = player.getLevel(); // Saves current level
+        expGained = enemyInitialHP / 2 + player.getLevel() * 10; // Calculates XP (half enemy HP + level * 10)
+        player.gainExperience(expGained); // Adds XP to player
+        leveledUp = player.getLevel() > oldLevel;
+        hashState(); // Covers experience and any level up
+        return expGained;
+    }
+
+    /**
+     * Folds the current state into the rolling state hash.
+     */
+    private void hashState()
+    {
+        long hash = stateHash;
+        hash = mix(hash, turns);
+        hash = mix(hash, rand.getDraws()); // The RNG’s position
+        hash = mix(hash, player.getHP());
+        hash = mix(hash, player.getMaxHP());
+        hash = mix(hash, player.getLevel());
+        hash = mix(hash, player.getExperience());
+        hash = mix(hash, player.getPrecision());
+        hash = mix(hash, player.getStamina());
+        hash = mix(hash, player.getCreativity());
+        hash = mix(hash, player.getFlavorSense());
+        hash = mix(hash, player.getSpeed());
+        hash = mix(hash, enemy.getHP());
+        hash = mix(hash, enemy.getAttackPower());
+        stateHash = hash;
+    }
+
+    /**
+     * Mixes one value into a hash (multiply by the golden ratio, then fold the high bits down).
+     */
+    private static long mix(long hash, long value)
+    {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Takes an immutable snapshot of the battle for the UI to read.
+     * @return The current battle state.
+     */
+    public Snapshot snapshot()
+    {
+        return new Snapshot(player.getHP(), player.getMaxHP(), enemy.getHP(), player.getLevel(), turns,
+                isPlayerDefeated(), isEnemyDefeated(), expGained, leveledUp);
+    }
+
+    public boolean isPlayerDefeated() { return player.getHP() <= 0; }
+    public boolean isEnemyDefeated() { return enemy.getHP() <= 0; }
+    public boolean isOver() { return isPlayerDefeated() || isEnemyDefeated(); }
+
+    // Getters
+    public Player getPlayer() { return player; }
+    public Enemy getEnemy() { return enemy; }
+    public int getEnemyInitialHP() { return enemyInitialHP; }
+    public int getTurns() { return turns; }
+    public long getSeed() { return seed; }
+    public long getStateHash() { return stateHash; }
+    public long getRolls() { return rand.getDraws(); }
+
+    /**
+     * Immutable copy of the battle state, published from the writer thread to the UI.
+     */
+    static class Snapshot
+    {
+        private final int playerHP, playerMaxHP, enemyHP, playerLevel, turns; // HP, level and turn count
+        private final boolean playerDefeated, enemyDefeated; // Who has dropped
+        private final int expGained; // XP awarded (0 until the enemy is defeated)
+        private final boolean leveledUp; // Whether the XP caused a level up
+
+        Snapshot(int playerHP, int playerMaxHP, int enemyHP, int playerLevel, int turns,
+                 boolean playerDefeated, boolean enemyDefeated, int expGained, boolean leveledUp)
+        {
+            this.playerHP = playerHP;
+            this.playerMaxHP = playerMaxHP;
+            this.enemyHP = enemyHP;
+            this.playerLevel = playerLevel;
+            this.turns = turns;
+            this.playerDefeated = playerDefeated;
+            this.enemyDefeated = enemyDefeated;
+            this.expGained = expGained;
+            this.leveledUp = leveledUp;
+        }
+
+        // Accessor methods
+        public int getPlayerHP() { return playerHP; }
+        public int getPlayerMaxHP() { return playerMaxHP; }
+        public int getEnemyHP() { return enemyHP; }
+        public int getPlayerLevel() { return playerLevel; }
+        public int getTurns() { return turns; }
+        public boolean isPlayerDefeated() { return playerDefeated; }
+        public boolean isEnemyDefeated() { return enemyDefeated; }
+        public int getExpGained() { return expGained; }
+        public boolean isLeveledUp() { return leveledUp; }
+    }
+
+    /**
+     * Outcome of a single resolved turn.
+     * Holds everything a presenter needs to describe the turn without re-rolling anything.
+     */
+    static class TurnResult
+    {
+        private final int attackType; // Attack used (1-4)
+        private final boolean critical; // Whether the attack was a critical hit
+        private final int damage; // Damage dealt to the enemy
+        private final boolean counterattack; // Whether the enemy survived to counterattack
+        private final boolean dodged; // Whether the player dodged the counterattack
+        private final String enemyAttack; // Name of the enemy’s attack (null if none landed)
+        private final int enemyDamage; // Damage dealt to the player
+        private final long stateHash; // The engine’s state hash after the turn
+
+        TurnResult(int attackType, boolean critical, int damage, boolean counterattack, boolean dodged, String enemyAttack, int enemyDamage,
+                   long stateHash)
+        {
+            this.attackType = attackType;
+            this.critical = critical;
+            this.damage = damage;
+            this.counterattack = counterattack;
+            this.dodged = dodged;
+            this.enemyAttack = enemyAttack;
+            this.enemyDamage = enemyDamage;
+            this.stateHash = stateHash;
+        }
+
+        // Accessor methods
+        public int getAttackType() { return attackType; }
+        public boolean isCritical() { return critical; }
+        public int getDamage() { return damage; }
+        public boolean isCounterattack() { return counterattack; }
+        public boolean isDodged() { return dodged; }
+        public String getEnemyAttack() { return enemyAttack; }
+        public int getEnemyDamage() { return enemyDamage; }
+        public long getStateHash() { return stateHash; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+import javax.swing.JTextArea; // Imports the text box the log writes to
+import javax.swing.Timer; // Imports the Swing timer that paces drains to the frame rate
+import javax.swing.text.BadLocationException; // Imports error for bad document offsets
+import javax.swing.text.Document; // Imports the text box’s document
+import javax.swing.text.Element; // Imports document lines
+import java.util.concurrent.ConcurrentLinkedQueue; // Imports the lock-free message queue
+import java.util.concurrent.atomic.AtomicBoolean; // Imports the "drain scheduled" flag
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+
+/**
+ * Bounded, batched message log for the game’s text area.
+ * Any thread can append a line; lines wait in a lock-free queue and are written to the
+ * text area at most once per frame, in one document insert, so a burst of messages
+ * (fast-forwarded or multi-hit turns) costs the EDT one small task instead of one per line.
+ * Only the newest lines are kept: a burst larger than the cap is cut down in a ring
+ * before it reaches the document, and the oldest document lines are removed as new ones arrive.
+ */
+public class BattleLog
+{
+    static final int MAX_LINES = 200; // Lines kept in the text area
+    private static final int FRAME_MS = 16; // Longest a line waits before it is shown (about one frame)
+
+    private final JTextArea textArea; // Where lines are shown
+    private final int maxLines; // Lines kept in the text area
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>(); // Lines not shown yet
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(); // Whether a drain is already on its way
+    private final Timer frame; // Fires the next drain on the EDT
+    private final String[] ring; // Newest lines of a burst (EDT only)
+    private final StringBuilder batch = new StringBuilder(); // Text inserted by one drain (EDT only)
+
+    // Metrics
+    private final AtomicLong drains = new AtomicLong(); // Document updates made
+    private final AtomicLong lines = new AtomicLong(); // Lines shown
+    private final AtomicLong dropped = new AtomicLong(); // Lines skipped because a burst passed the cap
+
+    /**
+     * Constructor: Creates a log that writes to a text area.
+     * @param textArea The text area to show lines in.
+     * @param maxLines How many lines to keep.
+     */
+    public BattleLog(JTextArea textArea, int maxLines)
+    {
+        this.textArea = textArea;
+        this.maxLines = maxLines;
+        this.ring = new String[maxLines];
+        this.frame = new Timer(FRAME_MS, e -> drain());
+        frame.setRepeats(false); // Only runs when there is something to show
+    }
+
+    /**
+     * Adds a line to the log (safe from any thread, never blocks).
+     * @param line The message (a new line is added after it).
+     */
+    public void append(String line)
+    {
+        pending.add(line);
+        if (drainScheduled.compareAndSet(false, true)) // First line since the last drain
+        {
+            frame.start(); // One drain per frame, however many lines arrive
+        }
+    }
+
+    /**
+     * Replaces everything in the text area, dropping lines that weren’t shown yet.
+     * Must be called on the EDT.
+     * @param text The new text.
+     */
+    public void setText(String text)
+    {
+        pending.clear();
+        textArea.setText(text);
+    }
+
+    /**
+     * Writes every waiting line to the text area in one insert, then trims old lines (on the EDT).
+     */
+    private void drain()
+    {
+        drainScheduled.set(false); // Lines added from here on schedule the next drain
+        int count = 0;
+        String line;
+        while ((line = pending.poll()) != null) // Keeps only the newest maxLines of the burst
+        {
+            ring[count % maxLines] = line;
+            count++;
+        }
+        if (count == 0) return;
+        int kept = Math.min(count, maxLines);
+        dropped.addAndGet(count - kept);
+
+        batch.setLength(0);
+        for (int i = count - kept; i < count; i++)
+        {
+            batch.append(ring[i % maxLines]).append('\n');
+            ring[i % maxLines] = null;
+        }
+        textArea.append(batch.toString()); // One insert; the text area repaints only what changed
+        trim();
+        drains.incrementAndGet();
+        lines.addAndGet(kept);
+    }
+
+    /**
+     * Removes the oldest lines once the text area holds more than maxLines.
+     */
+    private void trim()
+    {
+        Document document = textArea.getDocument();
+        Element root = document.getDefaultRootElement(); // One child element per line
+        int excess = root.getElementCount() - maxLines - 1; // The last element is the empty line after the final \n
+        if (excess <= 0) return;
+        try
+        {
+            document.remove(0, root.getElement(excess - 1).getEndOffset());
+        }
+        catch (BadLocationException e) // Can’t happen: the offset comes from the document itself
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Metrics
+    public long getDrains() { return drains.get(); }
+    public long getLines() { return lines.get(); }
+    public long getDropped() { return dropped.get(); }
+}
\ No newline at end of file
@@ -1,113 +1,128 @@
 import javax.swing.*; // Imports tools for creating buttons, panels, etc. (Swing GUI library)
 import java.awt.*; // Imports tools for colors, fonts, and layouts (AWT library)
-import javax.sound.sampled.*; // Imports tools for playing sound files (like attack sounds)
-import java.io.File; // Imports File class to work with sound files
-import java.util.Random;
 
 /**
  * Manages turn-based combat with class-specific attacks for Cooking with Carby.
- * This class handles the battle system, showing attack buttons, calculating damage,
- * playing sounds, and updating the game window (via GameWindow).
+ * This class presents the battle: it shows attack buttons, plays sounds and updates
+ * the game window (via GameWindow), while BattleEngine does the actual turn resolution.
+ * Every change to Player or Enemy runs on the GameExecutor writer thread; the UI only
+ * reads the immutable snapshots it publishes. The battle screens are built once and
+ * reused for every battle; each battle only updates the sprite and the attack buttons.
+ * In turbo mode (the battle screen’s Turbo button, or -Dcarby.turbo=true) turns play with
+ * no pauses, sounds or enemy animations and effects; only the messages and HP are shown.
+ * Before each move the log suggests the attack an AttackSearch rates most likely to win.
  */
 public class Combat 
 {
+    // Where attack effects burst: the enemy sprite’s center, and the player’s side of the screen
+    private static final float ENEMY_X = 678, ENEMY_Y = 278;
+    private static final float PLAYER_X = 150, PLAYER_Y = 300;
+
     // Instance variables (data the class needs to keep track of)
     private Player player; // The player’s character (stats, HP, etc.)
     private Enemy enemy; // The enemy being fought (HP, attack power, etc.)
-    private JPanel visualPanel; // Panel for showing attack buttons (from GameWindow)
-    private JTextArea textArea; // Text box for battle messages (from GameWindow)
+    private BattleEngine engine; // Resolves damage, crits, dodges and counterattacks
+    private CombatTimeline timeline; // Plays each turn’s messages, sounds and pauses in order
+    private GameExecutor executor; // Single writer thread for battle state
+    private final ReplayFile.Recorder recorder = new ReplayFile.Recorder(); // Records the battle (writer thread only)
+    private AttackSearch search; // Suggests moves (writer thread only)
+    private ScreenRegistry screens; // The game window’s screens (battle screens are shared between battles)
+    private BattleScreen battleScreen; // The battle screen, pointed at this battle
+    private BattleLog log; // Batched log for battle messages (from GameWindow)
     private GameWindow gameWindow; // Reference to the main game window
-    private JButton[] attackButtons = new JButton[4]; // Array to hold up to 4 attack buttons
-    private int enemyInitialHP; // Stores enemy’s starting HP for XP calculation
 
     /**
      * Constructor: Sets up a combat instance with player, enemy, and UI components.
      * @param player The player fighting in the battle.
      * @param enemy The enemy being fought.
-     * @param visualPanel The panel for displaying attack buttons.
-     * @param textArea The text area for battle messages.
+     * @param screens The game window’s screen registry.
+     * @param log The log for battle messages.
      * @param gameWindow The main game window to update after battle.
      */
-    public Combat(Player player, Enemy enemy, JPanel visualPanel, JTextArea textArea, GameWindow gameWindow) 
+    public Combat(Player player, Enemy enemy, ScreenRegistry screens, BattleLog log, GameWindow gameWindow) 
     {
         this.player = player; // Assigns the player object
         this.enemy = enemy; // Assigns the enemy object
-        this.visualPanel = visualPanel; // Assigns the panel for buttons
-        this.textArea = textArea; // Assigns the text area for messages
+        this.screens = screens; // Assigns the screens for the battle UI
+        this.log = log; // Assigns the log for messages
         this.gameWindow = gameWindow; // Assigns the game window reference
-        this.enemyInitialHP = enemy.getHP(); // Saves enemy’s initial HP
+        this.engine = gameWindow.getController().createEngine(); // Sets up the battle rules (seeded by the game’s controller)
+        this.executor = GameExecutor.shared(); // Uses the game’s writer thread
+        this.timeline = new CombatTimeline(executor, log::append); // Sends turn messages to the log (batched per frame)
+        setTurbo(gameWindow.isTurbo()); // Carries over from the last battle
+    }
+
+    /**
+     * Turns turbo mode on or off for this battle and the ones after it.
+     * @param turbo True to skip pauses, sounds and enemy animations and effects.
+     */
+    private void setTurbo(boolean turbo)
+    {
+        gameWindow.setTurbo(turbo);
+        timeline.setPace(turbo ? 0f : 1f); // A turn already playing speeds up too
+        timeline.setSoundEnabled(!turbo);
+        if (battleScreen != null) battleScreen.turboButton.setText(turbo ? "Turbo: On" : "Turbo: Off");
     }
 
     /**
-     * Starts the battle, setting up attack buttons and resetting player HP.
+     * Starts the battle: resets player HP on the writer thread, then sets up attack buttons.
      */
     public void startBattle() 
     {
-        resetPlayerHP(); // Heals player to full HP before battle
-        visualPanel.removeAll(); // Clears any old buttons from the panel
-  
-        // Load and display the enemy's sprite
-        JLabel enemySprite = new JLabel(); 
-        try // Tries to load Enemy image
-        { 
-            ImageIcon enemyIcon = new ImageIcon(enemy.getSpritePath());
-            if (enemyIcon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) // Checks if image loaded
-            {
-                throw new Exception("Image failed to load"); // Throws error if it fails
-            }
-            enemySprite.setIcon(enemyIcon); // Sets image to label
-        } 
-        catch (Exception e) // Catches error if image fails
-        { 
-            System.err.println("Enemy image not found at src/resources/enemy.png."); // Prints error
-            enemySprite.setText("Enemy Image Missing"); // Shows text instead
-        }
+        executor.submit(() ->
+        {
+            engine.startBattle(); // Heals player to full HP before battle
+            recorder.begin(engine, player, enemy); // Records the battle for replays
+            BattleEngine.Snapshot start = engine.snapshot(); // State the UI will show
+            double odds = WinProbability.of(player, enemy, AttackPolicy.STRONGEST); // Exact odds with your strongest attacks
+            search = new AttackSearch(enemy.getAttackPower(), AttackSearch.BUDGET_NANOS);
+            AttackSearch.Suggestion hint = search.suggest(player, start.getPlayerHP(), start.getEnemyHP());
+            SwingUtilities.invokeLater(() -> showBattle(start, odds, hint));
+        });
+    }
 
-        enemySprite.setBounds(550, 150, 256, 256); 
-        visualPanel.add(enemySprite);
+    /**
+     * Shows the battle screen with the enemy sprite and attack buttons.
+     * @param start The battle state after the player was healed.
+     * @param odds The chance of winning with the strongest attacks.
+     * @param hint The suggested first move.
+     */
+    private void showBattle(BattleEngine.Snapshot start, double odds, AttackSearch.Suggestion hint) 
+    {
+        battleScreen = screens.screen("battle", () -> new BattleScreen(gameWindow.getBackgroundImage())); // Built on the first battle only
+        battleScreen.combat = this; // Attack buttons now act on this battle
+        setTurbo(gameWindow.isTurbo()); // Updates the Turbo button
+
+        // Show the enemy's animated sprite (from the sprite atlas, never blocking)
+        battleScreen.enemySprite.setSprite(enemy.getSpritePath());
+        battleScreen.particles.clear(); // No leftovers from the last battle
         
-        textArea.setText("Battle Begins: " + player.getName() + " vs. " + enemy.getName() + "\n"); // Shows battle start message
-        textArea.append("Your HP: " + player.getHP() + " | Enemy HP: " + enemy.getHP() + "\n"); // Shows HP stats
+        log.setText("Battle Begins: " + player.getName() + " vs. " + enemy.getName() + "\n"); // Shows battle start message
+        log.append("Your HP: " + start.getPlayerHP() + " | Enemy HP: " + start.getEnemyHP()); // Shows HP stats
+        log.append("Odds of winning: " + Math.round(odds * 100) + "%"); // Shows win chance
+        log.append(describe(hint));
 
         // Fetch class-specific attacks (e.g., "Chop" for Sous Chef)
         String[] attacks = getClassAttacks(); // Gets attack names based on player class
-        int playerLevel = player.getLevel(); // Gets player’s level to unlock attacks
-
-        // Set up base attacks (available from level 1)
-        attackButtons[0] = createStyledButton(attacks[0]); // Creates button for first attack (e.g., "Chop")
-        attackButtons[1] = createStyledButton(attacks[1]); // Creates button for second attack (e.g., "Sauté")
-        attackButtons[0].addActionListener(e -> performAttackAsync(1, attacks[0])); // Runs attack 1 when clicked
-        attackButtons[1].addActionListener(e -> performAttackAsync(2, attacks[1])); // Runs attack 2 when clicked
-        attackButtons[0].setBounds(20, 361, 150, 40); // Positions first button
-        attackButtons[1].setBounds(170, 361, 150, 40); // Positions second button
-        visualPanel.add(attackButtons[0]); // Adds first button to panel
-        visualPanel.add(attackButtons[1]); // Adds second button to panel
-
-        // Unlock third attack at level 4 (e.g., "Dice" or "Fold")
-        if (playerLevel >= 4) // Checks if player is level 4 or higher
-        { 
-            attackButtons[2] = createStyledButton(attacks[2]); // Creates third attack button
-            attackButtons[2].addActionListener(e -> performAttackAsync(3, attacks[2])); // Runs attack 3 when clicked
-            attackButtons[2].setBounds(550, 50, 150, 40); // Positions third button
-            visualPanel.add(attackButtons[2]); // Adds third button to panel
-        }
+        int playerLevel = start.getPlayerLevel(); // Gets player’s level to unlock attacks
 
-        // Unlock fourth attack at level 7 (e.g., "Simmer" or "Bake")
-        if (playerLevel >= 7) // Checks if player is level 7 or higher
+        // Base attacks are available from level 1; the third unlocks at level 4 and the fourth at level 7
+        int unlocked = BattleEngine.getUnlockedAttackCount(playerLevel);
+        for (int i = 0; i < battleScreen.attackButtons.length; i++)
         {
-            attackButtons[3] = createStyledButton(attacks[3]); // Creates fourth attack button
-            attackButtons[3].addActionListener(e -> performAttackAsync(4, attacks[3])); // Runs attack 4 when clicked
-            attackButtons[3].setBounds(250, 100, 150, 40); // Positions fourth button
-            visualPanel.add(attackButtons[3]); // Adds fourth button to panel
+            JButton button = battleScreen.attackButtons[i];
+            button.setText(attacks[i]); // e.g., "Chop" or "Sauté"
+            button.setEnabled(true);
+            button.setVisible(i < unlocked);
         }
         
-        if (gameWindow.battleCount == 0)
+        if (gameWindow.getController().getBattleCount() == 0)
         {
-        	textArea.append("Oh look, here's one now!\n");
+        	log.append("Oh look, here's one now!");
         }
 
-        visualPanel.revalidate(); // Updates panel layout after adding buttons
-        visualPanel.repaint(); // Redraws panel to show buttons
+        screens.show("battle"); // Flips to the battle screen
+        if (battleScreen.renderer != null) battleScreen.renderer.start(); // Frames only while the battle is on screen
     }
 
     /**
@@ -116,153 +131,132 @@ public class Combat
      */
     private String[] getClassAttacks() 
     {
-        switch (player.getClassType()) // Checks player’s class type
-        { 
-            case "Sous Chef": // If Sous Chef
-                return new String[] {"Chop", "Sauté", "Dice", "Simmer"}; // Returns Sous Chef attacks
-            case "Pastry Artist": // If Pastry Artist
-                return new String[] {"Whisk", "Frost", "Fold", "Bake"}; // Returns Pastry Artist attacks
-            case "Grill Master": // If Grill Master
-                return new String[] {"Grill", "Sear", "Baste", "Smoke"}; // Returns Grill Master attacks
-            default: // If no class matches (fallback)
-                return new String[] {"Slice", "Flambé", "Cut", "Roast"}; // Returns default attacks
-        }
+        return BattleEngine.getClassAttacks(player.getClassType()); // Checks player’s class type
     }
 
     /**
-     * Starts a player attack in a new thread to avoid freezing the UI.
+     * Sends a player attack to the writer thread; its beats then play out on the timeline.
      * @param attackType The type of attack (1-4) to determine damage.
      * @param attackName The name of the attack (e.g., "Chop").
      */
     private void performAttackAsync(int attackType, String attackName)
     {
-        disableButtons(); // Disables attack buttons during attack
-        new Thread(() -> performPlayerAttack(attackType, attackName)).start(); // Runs attack in new thread
+        disableButtons(); // Disables attack buttons right away (this runs on the EDT), so a queued second click is ignored
+        executor.submit(() -> performPlayerAttack(attackType, attackName)); // Runs attack on the writer thread
     }
 
     /**
      * Performs the player’s attack and enemy’s counterattack (if alive).
+     * Runs on the writer thread, which is the only thread that changes battle state.
      * @param attackType The type of attack (1-4) to calculate damage.
      * @param attackName The name of the attack to display.
      */
     private void performPlayerAttack(int attackType, String attackName) {
-        disableButtons(); // Disable buttons during attack
+        if (engine.isOver()) return; // A click that slipped in after the last turn: the battle is already scored
         
-        // Calculate base damage
-        int baseDamage;
-        switch (attackType) 
-        { 
-            case 1: baseDamage = player.getPrecision() * 2; break;
-            case 2: baseDamage = player.getCreativity() * 3; break;
-            case 3: baseDamage = player.getSpeed() * 2 + 5; break;
-            case 4: baseDamage = player.getStamina() * 4; break;
-            default: baseDamage = 10;
+        // Resolve the whole turn first, then present it
+        BattleEngine.TurnResult result = engine.resolveTurn(attackType);
+        recorder.turn(result);
+        if (engine.isEnemyDefeated()) // Awards XP here so the UI never touches the player
+        {
+            engine.awardExperience();
         }
-        
-        Random rand = new Random(); // Random object to pick attacks randomly
-
-        // Check for critical hit (precision * 2% chance)
-        boolean isCritical = rand.nextInt(100) < player.getCritChance();
-        int finalDamage = isCritical ? baseDamage * 2 : baseDamage;
+        if (engine.isOver()) // Counts the finished battle and stores it (and the XP it earned) in the replay file
+        {
+            gameWindow.getController().finishBattle();
+            recorder.finish(engine);
+            ReplayFile replays = ReplayFile.shared();
+            if (replays != null) replays.append(recorder);
+        }
+        BattleEngine.Snapshot after = engine.snapshot(); // State the UI will show once the turn plays out
+        AttackSearch.Suggestion hint = engine.isOver() ? null : search.suggest(player, after.getPlayerHP(), after.getEnemyHP());
 
         // Display attack message with critical hit if applicable
         String attackMessage = player.getName() + " uses " + attackName;
-        if (isCritical) 
+        if (result.isCritical()) 
         {
             attackMessage += " (CRITICAL HIT!)";
-            playSound("src/resources/critical_sound.wav"); // Special critical sound
+            timeline.sound("src/resources/critical_sound.wav"); // Special critical sound
         }
-        appendTextWithSound(attackMessage, "src/resources/player_attack.wav");
+        timeline.say(attackMessage, "src/resources/player_attack.wav");
+        animateEnemy(after.isEnemyDefeated() ? SpriteAtlas.DEFEAT : SpriteAtlas.HIT); // Flinches (or falls) as the damage shows
+        burst(ParticleSystem.Preset.forAttack(attackName), ENEMY_X, ENEMY_Y); // e.g. flames for Flambé, frost for Frost
+        if (result.isCritical()) burst(ParticleSystem.Preset.CRITICAL, ENEMY_X, ENEMY_Y);
         
-        // Apply damage
-        appendTextWithSound(player.getName() + " deals " + finalDamage + " damage to " + enemy.getName() + "!", null);
-        enemy.takeDamage(finalDamage);
-        pause(500);
+        // Show damage
+        timeline.say(player.getName() + " deals " + result.getDamage() + " damage to " + enemy.getName() + "!");
+        timeline.pause(500);
 
         // Enemy counterattack if alive
-        if (enemy.getHP() > 0)
+        if (result.isCounterattack())
         {
-            // Check for dodge (speed * 3% chance)
-            boolean didDodge = rand.nextInt(100) < player.getDodgeChance();
-            
-            if (didDodge)
+            if (result.isDodged())
             {
-                appendTextWithSound(player.getName() + " swiftly dodges the counterattack!", "src/resources/dodge_sound.wav");
+                animateEnemy(SpriteAtlas.ATTACK); // No attack was picked, so the generic clip
+                timeline.say(player.getName() + " swiftly dodges the counterattack!", "src/resources/dodge_sound.wav");
             } else {
-                String enemyAttack = enemy.chooseAttack();
-                int enemyDamage = enemy.getAttackPower();
-                appendTextWithSound(enemy.getName() + " uses " + enemyAttack + "!", "src/resources/enemy_attack.wav");
-                player.takeDamage(enemyDamage);
-                appendTextWithSound(enemy.getName() + " hits you for " + enemyDamage + " damage!", null);
+                animateEnemy(result.getEnemyAttack()); // e.g. the "Flambé Blast" clip, if the sheet has one
+                burst(ParticleSystem.Preset.forAttack(result.getEnemyAttack()), PLAYER_X, PLAYER_Y);
+                timeline.say(enemy.getName() + " uses " + result.getEnemyAttack() + "!", "src/resources/enemy_attack.wav");
+                timeline.say(enemy.getName() + " hits you for " + result.getEnemyDamage() + " damage!");
             }
-            pause(500);
+            timeline.pause(500);
         }
 
-        SwingUtilities.invokeLater(() -> {
-            checkBattleEnd();
+        timeline.then(() -> {
+            checkBattleEnd(after);
+            if (hint != null) log.append(describe(hint));
             enableButtons();
         });
     }
 
+    /**
+     * Describes a suggested move for the log.
+     * @param hint The search’s suggestion.
+     * @return e.g. "Suggested move: Sauté (87% to win)".
+     */
+    private String describe(AttackSearch.Suggestion hint)
+    {
+        return "Suggested move: " + getClassAttacks()[hint.getBest() - 1] + " (" + Math.round(hint.getBestChance() * 100) + "% to win)";
+    }
 
     /**
-     * Adds text to the text area and plays a sound if provided.
-     * @param text The message to display in the text area.
-     * @param soundFile The sound file to play (or null for no sound).
+     * Queues an enemy animation on the timeline, so it starts with the message after it.
+     * @param clipName The clip to play (see SpriteAtlas).
      */
-    private void appendTextWithSound(String text, String soundFile) 
+    private void animateEnemy(String clipName)
     {
-        SwingUtilities.invokeLater(() -> // Updates UI safely (Swing is picky about threads)
-        { 
-            textArea.append(text + "\n"); // Adds text with a new line
-            visualPanel.revalidate(); // Updates panel layout
-            visualPanel.repaint(); // Redraws panel
-        });
-        if (soundFile != null) // If there’s a sound file
-        { 
-            playSound(soundFile); // Plays the sound
-            pause(500); // Pauses to let sound finish
-        }
+        if (gameWindow.isTurbo()) return; // Nothing to watch in turbo mode
+        timeline.then(() -> battleScreen.enemySprite.play(clipName));
     }
 
     /**
-     * Plays a sound file at maximum volume.
-     * @param soundFile The path to the sound file (e.g., "src/resources/player_attack.wav").
+     * Queues a particle burst on the timeline, so it starts with the message after it.
+     * @param effect The effect.
+     * @param x Where it bursts.
+     * @param y Where it bursts.
      */
-    private void playSound(String soundFile) 
+    private void burst(ParticleSystem.Preset effect, float x, float y)
     {
-        try // Tries to play sound (might fail if file is missing)
-        { 
-            File file = new File(soundFile); // Creates File object for sound
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(file); // Prepares audio data
-            Clip clip = AudioSystem.getClip(); // Creates a Clip to play sound
-            clip.open(audioIn); // Loads audio into Clip
-            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN); // Gets volume control
-            float maxDB = gainControl.getMaximum(); // Gets max volume level
-            gainControl.setValue(maxDB); // Sets volume to maximum
-            clip.start(); // Starts playing sound
-            while (!clip.isRunning()) Thread.sleep(10); // Waits until sound starts
-            while (clip.isRunning()) Thread.sleep(10); // Waits until sound finishes
-            clip.close(); // Frees resources after sound ends
-        } 
-        catch (Exception e) // Catches errors (e.g., file not found)
-        { 
-            System.err.println("Error playing sound: " + soundFile + " - " + e.getMessage()); // Prints error
-        }
+        if (gameWindow.isTurbo()) return; // Nothing to watch in turbo mode
+        timeline.then(() -> battleScreen.particles.emit(effect, x, y));
     }
 
     /**
      * Disables all attack buttons to prevent multiple clicks during an attack.
+     * On the EDT this happens immediately; from any other thread it is queued onto the EDT.
      */
     private void disableButtons() 
     {
-        SwingUtilities.invokeLater(() -> // Updates UI safely
+        if (!SwingUtilities.isEventDispatchThread()) // Updates UI safely
+        {
+            SwingUtilities.invokeLater(this::disableButtons);
+            return;
+        }
+        for (JButton button : battleScreen.attackButtons) // Loops through attack buttons
         { 
-            for (JButton button : attackButtons) // Loops through attack buttons
-            { 
-                if (button != null) button.setEnabled(false); // Disables button if it exists
-            }
-        });
+            button.setEnabled(false); // Disables button
+        }
     }
 
     /**
@@ -272,51 +266,34 @@ public class Combat
     {
         SwingUtilities.invokeLater(() -> // Updates UI safely
         { 
-            for (JButton button : attackButtons) // Loops through attack buttons
+            for (JButton button : battleScreen.attackButtons) // Loops through attack buttons
             { 
-                if (button != null) button.setEnabled(true); // Enables button if it exists
+                button.setEnabled(true); // Enables button
             }
         });
     }
 
     /**
-     * Pauses the thread for a given number of milliseconds.
-     * @param milliseconds The time to pause in milliseconds (e.g., 500 = 0.5 seconds).
-     */
-    static void pause(int milliseconds) 
-    {
-        try // Tries to pause (might fail if interrupted)
-        { 
-            Thread.sleep(milliseconds); // Pauses current thread
-        } 
-        catch (InterruptedException e) // Catches interruption error
-        { 
-            Thread.currentThread().interrupt(); // Restores interrupted status
-        }
-    }
-
-    /**
-     * Checks if the battle has ended (player or enemy HP <= 0) and updates accordingly.
+     * Checks if the battle has ended (player or enemy HP <= 0) and shows the result.
+     * The battle was already counted on the writer thread when its last turn resolved.
+     * @param state The battle state published after the turn.
      */
-    private void checkBattleEnd() 
+    private void checkBattleEnd(BattleEngine.Snapshot state) 
     {
-        textArea.append("Your HP: " + player.getHP() + " | Enemy HP: " + enemy.getHP() + "\n"); // Shows current HP
-        if (player.getHP() <= 0) // If player is defeated
+        log.append("Your HP: " + state.getPlayerHP() + " | Enemy HP: " + state.getEnemyHP()); // Shows current HP (after the turn’s messages)
+        if (state.isPlayerDefeated()) // If player is defeated
         {
-            textArea.append("You were defeated by " + enemy.getName() + "!\n"); // Shows defeat message
-            gameWindow.incrementBattleCount(); // Increases battle count in GameWindow
+            log.append("You were defeated by " + enemy.getName() + "!"); // Shows defeat message
             endBattle("Back to Menu"); // Ends battle with "Back to Menu" button
         } 
-        else if (enemy.getHP() <= 0) // If enemy is defeated
+        else if (state.isEnemyDefeated()) // If enemy is defeated
         {
-            textArea.append("You defeated " + enemy.getName() + "!\n"); // Shows victory message
-            int oldLevel = player.getLevel(); // Saves current level
-            awardExperience(); // Gives player XP
-            if (player.getLevel() > oldLevel) // If player leveled up
+            log.append("You defeated " + enemy.getName() + "!"); // Shows victory message
+            log.append("You gained " + state.getExpGained() + " experience!"); // Shows XP gained
+            if (state.isLeveledUp()) // If player leveled up
             { 
-                textArea.append("Level Up! You reached Level " + player.getLevel() + "!\n"); // Shows level up
+                log.append("Level Up! You reached Level " + state.getPlayerLevel() + "!"); // Shows level up
             }
-            gameWindow.incrementBattleCount(); // Increases battle count
             endBattle("Back to Menu"); // Ends battle
         }
     }
@@ -327,31 +304,25 @@ public class Combat
      */
     private void endBattle(String buttonText)
     {
-        visualPanel.removeAll(); // Clears attack buttons from panel
-        JButton backButton = createStyledButton(buttonText); // Creates back button
-        backButton.addActionListener(e -> gameWindow.endCombat()); // Returns to main menu when clicked
-        backButton.setBounds(350, 50, 150, 40); // Positions button
-        visualPanel.add(backButton); // Adds button to panel
-        visualPanel.revalidate(); // Updates panel layout
-        visualPanel.repaint(); // Redraws panel
-    }
-
-    /**
-     * Awards experience points to the player based on enemy HP and level.
-     */
-    private void awardExperience() 
-    {
-        int expGained = enemyInitialHP / 2 + player.getLevel() * 10; // Calculates XP (half enemy HP + level * 10)
-        player.gainExperience(expGained); // Adds XP to player
-        textArea.append("You gained " + expGained + " experience!\n"); // Shows XP gained
+        if (battleScreen.renderer != null) battleScreen.renderer.stop(); // The end screen is drawn by Swing again
+        JPanel endScreen = screens.screen("battleEnd", () -> buildEndScreen(gameWindow)); // Built after the first battle only
+        ((JButton) endScreen.getComponent(0)).setText(buttonText);
+        screens.show("battleEnd");
     }
 
     /**
-     * Resets the player’s HP to full before the battle starts.
+     * Builds the screen shown after a battle, with a back button (runs once).
+     * @param gameWindow The game window to return to.
+     * @return The end-of-battle screen.
      */
-    private void resetPlayerHP() 
+    private static JPanel buildEndScreen(GameWindow gameWindow)
     {
-        player.restoreHealth(player.getMaxHP() - player.getHP()); // Heals player to max HP
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the button
+        JButton backButton = createStyledButton("Back to Menu"); // Creates back button
+        backButton.addActionListener(e -> gameWindow.endCombat()); // Returns to main menu when clicked
+        backButton.setBounds(350, 50, 150, 40); // Positions button
+        screen.add(backButton); // Adds button to screen
+        return screen;
     }
 
     /**
@@ -359,15 +330,74 @@ public class Combat
      * @param text The text to display on the button (e.g., "Chop").
      * @return A styled JButton with Papyrus font and brown color.
      */
-    private JButton createStyledButton(String text) 
+    private static JButton createStyledButton(String text) 
     {
         JButton button = new JButton(text); // Creates button with given text
-        button.setFont(new Font("Matura MT Script Capitals", Font.BOLD, 14)); // Sets bold Papyrus font, size 14
-        button.setBackground(new Color(160, 82, 45)); // Sets brown background
-        button.setForeground(Color.WHITE); // Sets white text color
-        button.setBorder(BorderFactory.createRaisedBevelBorder()); // Adds 3D raised border
-        button.setFocusPainted(false); // Removes focus outline when clicked
-        button.setPreferredSize(new Dimension(150, 40)); // Sets button size to 150x40
+        Theme.styleButton(button, 14); // Shared font, colors and border, size 14
         return button; // Returns the styled button
     }
+
+    /**
+     * The battle screen: the enemy sprite and four attack buttons, built once and
+     * reused by every battle. Buttons send their attack to whichever battle is current.
+     * In active-render mode a CombatRenderer canvas behind the buttons draws the scene
+     * (background, enemy and particles) instead of the Swing components and the visual panel.
+     */
+    static class BattleScreen extends JPanel
+    {
+        final AnimatedSprite enemySprite = new AnimatedSprite("Enemy Image Missing"); // Shows the current enemy
+        final JButton[] attackButtons = new JButton[4]; // Up to 4 attack buttons
+        final JButton turboButton = createStyledButton("Turbo: Off"); // Turns turbo mode on and off
+        final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_BUDGET); // Attack effects, preallocated once
+        final CombatRenderer renderer; // Draws the scene in active-render mode (null otherwise)
+        Combat combat; // The battle the buttons act on (set on the EDT)
+
+        /**
+         * Constructor: Lays out the sprite and attack buttons.
+         * @param background The background image, for the active renderer (or null).
+         */
+        BattleScreen(Image background)
+        {
+            super(null); // Uses absolute positioning (setBounds) for buttons
+            setOpaque(false); // Lets the visual panel’s background show through
+            enemySprite.setBounds(550, 150, 256, 256); 
+            add(enemySprite);
+
+            int[][] bounds = { {20, 361}, {170, 361}, {550, 50}, {250, 100} }; // Third and fourth unlock later
+            for (int i = 0; i < attackButtons.length; i++)
+            {
+                int attackType = i + 1; // Attack types are 1-4
+                JButton button = createStyledButton("");
+                button.addActionListener(e -> combat.performAttackAsync(attackType, button.getText())); // Runs the attack when clicked
+                button.setBounds(bounds[i][0], bounds[i][1], 150, 40);
+                attackButtons[i] = button;
+                add(button);
+            }
+
+            turboButton.addActionListener(e -> combat.setTurbo(!combat.gameWindow.isTurbo()));
+            turboButton.setBounds(660, 10, 120, 30); // Top right, clear of the enemy
+            add(turboButton);
+
+            if (CombatRenderer.ENABLED) // Added last so it sits behind the buttons
+            {
+                renderer = new CombatRenderer(background, enemySprite, particles);
+                renderer.setBounds(0, 0, 800, 400);
+                enemySprite.setVisible(false); // The renderer draws the enemy
+                add(renderer);
+            }
+            else
+            {
+                renderer = null;
+                ParticleSystem.Layer layer = new ParticleSystem.Layer(particles);
+                layer.setBounds(0, 0, 800, 400);
+                add(layer, 0); // On top; it has no mouse listeners, so clicks still reach the buttons
+            }
+        }
+
+        @Override
+        public boolean isOptimizedDrawingEnabled()
+        {
+            return false; // The particle layer overlaps the buttons, so repaint them together
+        }
+    }
 }
\ No newline at end of file
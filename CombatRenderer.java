@@ -0,0 +1,193 @@
+import java.awt.*; // Imports Canvas, colors and drawing tools
+import java.awt.image.BufferStrategy; // Imports page flipping for the canvas
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.concurrent.locks.LockSupport; // Imports parking for frame pacing
+
+/**
+ * Optional active renderer for the battle scene (turned on with -Dcarby.activeRender=true).
+ * Instead of Swing repainting the scene whenever something asks, a render thread draws the
+ * background, the enemy (its current AnimatedSprite frame) and attack particles into a BufferStrategy at a steady frame rate. Animation state
+ * advances on a fixed timestep and frames draw it interpolated between the last two steps,
+ * so motion is smooth whatever the frame rate. Each frame’s cost goes into a histogram and
+ * frames that miss their slot are counted, so rendering cost can be measured directly.
+ * The battle screen’s buttons are Swing components above the canvas and work as before.
+ */
+public class CombatRenderer extends Canvas
+{
+    static final boolean ENABLED = Boolean.getBoolean("carby.activeRender"); // e.g. -Dcarby.activeRender=true
+    static final int UPDATES_PER_SECOND = 60; // Fixed timestep for animation state
+    static final int FRAMES_PER_SECOND = 60; // Target frame rate
+    private static final long STEP_NANOS = 1_000_000_000L / UPDATES_PER_SECOND;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+    private static final long MAX_CATCH_UP = 250_000_000L; // Most time simulated after a stall (no spiral of death)
+    private static final double BOB_SPEED = Math.PI; // Enemy idle bob, radians per second (one bob every 2 s)
+    private static final int BOB_HEIGHT = 4; // Enemy idle bob, pixels
+
+    private final Image background; // The visual panel’s background (null draws a plain color)
+    private final AnimatedSprite enemy; // The battle screen’s enemy sprite (hidden; drawn here instead)
+    private final ParticleSystem particles; // Attack effects (updated on this thread’s fixed step)
+    private volatile Thread renderThread; // The thread drawing frames (null when stopped)
+
+    // Animation state (render thread only): the last two steps, for interpolation
+    private double bobPhase, previousBobPhase;
+
+    // Metrics
+    private final LatencyHistogram frameTimes = new LatencyHistogram(); // Time to draw and show each frame
+    private final AtomicLong frames = new AtomicLong(); // Frames shown
+    private final AtomicLong droppedFrames = new AtomicLong(); // Frame slots missed because a frame ran long
+    private final AtomicLong updates = new AtomicLong(); // Fixed steps simulated
+
+    /**
+     * Constructor: Creates the canvas (it draws nothing until start is called).
+     * @param background The background image to draw behind the enemy (or null).
+     * @param enemy The enemy sprite whose frames to draw (its clips are still played through it).
+     * @param particles The battle’s particle effects, to update and draw.
+     */
+    public CombatRenderer(Image background, AnimatedSprite enemy, ParticleSystem particles)
+    {
+        this.background = background;
+        this.enemy = enemy;
+        this.particles = particles;
+        setIgnoreRepaint(true); // Frames come from the render thread, not from Swing
+        setBackground(Theme.FALLBACK_BACKGROUND);
+    }
+
+    /**
+     * Starts drawing frames. Must be called on the EDT once the canvas is in the window.
+     */
+    public void start()
+    {
+        if (renderThread != null || !isDisplayable()) return;
+        if (getBufferStrategy() == null) createBufferStrategy(2); // Back buffer plus screen
+        Thread thread = new Thread(this::renderLoop, "combat-render");
+        thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+        renderThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops drawing frames (the thread finishes its current frame and exits).
+     */
+    public void stop()
+    {
+        Thread thread = renderThread;
+        renderThread = null; // A restarted renderer gets a new thread; this one sees it isn’t current and exits
+        if (thread != null) LockSupport.unpark(thread); // Wakes it from its frame wait
+    }
+
+    @Override
+    public void removeNotify()
+    {
+        stop(); // The buffer strategy goes away with the peer
+        super.removeNotify();
+    }
+
+    /**
+     * Runs fixed steps and draws frames until stopped (render thread).
+     */
+    private void renderLoop()
+    {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextFrame = previous;
+        while (renderThread == Thread.currentThread())
+        {
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_CATCH_UP);
+            previous = now;
+            while (accumulator >= STEP_NANOS) // Advances the animation in whole steps
+            {
+                update();
+                accumulator -= STEP_NANOS;
+            }
+
+            long start = System.nanoTime();
+            render((double) accumulator / STEP_NANOS); // Draws between the last two steps
+            frameTimes.record(System.nanoTime() - start);
+            frames.incrementAndGet();
+
+            nextFrame += FRAME_NANOS;
+            now = System.nanoTime();
+            if (now > nextFrame) // Ran past the next slot: those frames are dropped
+            {
+                long missed = (now - nextFrame) / FRAME_NANOS + 1;
+                droppedFrames.addAndGet(missed);
+                nextFrame += missed * FRAME_NANOS;
+            }
+            LockSupport.parkNanos(nextFrame - now);
+        }
+    }
+
+    /**
+     * Advances the animation by one fixed step.
+     */
+    private void update()
+    {
+        previousBobPhase = bobPhase;
+        bobPhase += BOB_SPEED / UPDATES_PER_SECOND;
+        particles.update(1f / UPDATES_PER_SECOND);
+        if (bobPhase > 2 * Math.PI) // Keeps the phase small; both steps move together so interpolation is unchanged
+        {
+            bobPhase -= 2 * Math.PI;
+            previousBobPhase -= 2 * Math.PI;
+        }
+        updates.incrementAndGet();
+    }
+
+    /**
+     * Draws one frame into the back buffer and shows it, redrawing if the buffer was lost.
+     * @param alpha How far between the previous and current step to draw (0 to 1).
+     */
+    private void render(double alpha)
+    {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) return; // Canvas left the window
+        do
+        {
+            do
+            {
+                Graphics g = strategy.getDrawGraphics();
+                try
+                {
+                    draw(g, alpha);
+                }
+                finally
+                {
+                    g.dispose();
+                }
+            }
+            while (strategy.contentsRestored()); // Redraws a buffer that was restored mid-frame
+            strategy.show();
+        }
+        while (strategy.contentsLost()); // Tries again if the buffer was lost (e.g., display change)
+        Toolkit.getDefaultToolkit().sync(); // Pushes the frame out now on systems that buffer drawing
+    }
+
+    /**
+     * Draws the battle scene.
+     * @param g Where to draw.
+     * @param alpha How far between the previous and current step to draw.
+     */
+    private void draw(Graphics g, double alpha)
+    {
+        if (background != null)
+        {
+            g.drawImage(background, 0, 0, null);
+        }
+        else
+        {
+            g.setColor(Theme.FALLBACK_BACKGROUND);
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        double phase = previousBobPhase + (bobPhase - previousBobPhase) * alpha;
+        int bob = (int) Math.round(Math.sin(phase) * BOB_HEIGHT);
+        enemy.draw(g, enemy.getX(), enemy.getY() + bob, AnimationClock.shared().now()); // Where the sprite would be, bobbing
+        particles.draw(g);
+    }
+
+    // Metrics
+    public LatencyHistogram getFrameTimes() { return frameTimes; }
+    public long getFrames() { return frames.get(); }
+    public long getDroppedFrames() { return droppedFrames.get(); }
+    public long getUpdates() { return updates.get(); }
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+import javax.swing.SwingUtilities; // Imports helper for running UI updates on the EDT
+import java.util.ArrayDeque; // Imports a queue for pending beats
+import java.util.function.Consumer; // Imports the callback type for messages
+
+/**
+ * Event-scheduled timeline for presenting a combat turn.
+ * Combat queues timed "beats" (a message, a sound, a pause, a UI action) and the
+ * game’s single writer thread (GameExecutor) fires them in order. A beat with a sound waits for the
+ * AudioMixer to report that the sound’s voice finished instead of polling, and pauses are scheduled delays,
+ * so no thread ever sleeps or spins. Pacing can be scaled down or skipped entirely.
+ * Messages go straight to the sink from the timeline’s thread (Combat uses a BattleLog,
+ * which batches them onto the EDT), so a fast turn doesn’t post one EDT task per line.
+ */
+public class CombatTimeline
+{
+    static final int BEAT_GAP = 500; // Default gap after a message with a sound (milliseconds)
+
+    private final GameExecutor executor; // Thread that fires the beats (only wakes when one is due)
+    private final Consumer<String> messageSink; // Where messages go (called on the executor’s thread)
+    private final ArrayDeque<Beat> beats = new ArrayDeque<>(); // Beats waiting to fire
+    private boolean running; // Whether a beat is currently in progress
+    private volatile float pace = 1.0f; // Multiplier for every delay (0 = no pacing)
+    private volatile boolean soundEnabled = true; // Whether beats play their sounds
+
+    /**
+     * Constructor: Creates a timeline that shows messages through the given callback.
+     * @param messageSink Called with each message on the executor’s thread, so it must be thread-safe (e.g., BattleLog::append).
+     */
+    public CombatTimeline(Consumer<String> messageSink)
+    {
+        this(GameExecutor.shared(), messageSink);
+    }
+
+    /**
+     * Constructor: Creates a timeline that fires its beats on the given executor.
+     * @param executor The executor whose thread fires the beats.
+     * @param messageSink Called with each message on the executor’s thread (must be thread-safe).
+     */
+    public CombatTimeline(GameExecutor executor, Consumer<String> messageSink)
+    {
+        this.executor = executor;
+        this.messageSink = messageSink;
+    }
+
+    /**
+     * Queues a message with no sound and no pause after it.
+     * @param text The message to show.
+     * @return This timeline, for chaining.
+     */
+    public CombatTimeline say(String text)
+    {
+        return add(new Beat(text, null, 0, null));
+    }
+
+    /**
+     * Queues a message with a sound; the next beat waits for the sound to finish plus a short gap.
+     * @param text The message to show.
+     * @param soundFile The sound to play (or null for no sound).
+     * @return This timeline, for chaining.
+     */
+    public CombatTimeline say(String text, String soundFile)
+    {
+        return add(new Beat(text, soundFile, soundFile != null ? BEAT_GAP : 0, null));
+    }
+
+    /**
+     * Queues a sound with no message; the next beat waits for it to finish.
+     * @param soundFile The sound to play.
+     * @return This timeline, for chaining.
+     */
+    public CombatTimeline sound(String soundFile)
+    {
+        return add(new Beat(null, soundFile, 0, null));
+    }
+
+    /**
+     * Queues a pause before the next beat.
+     * @param milliseconds How long to wait (scaled by the pace).
+     * @return This timeline, for chaining.
+     */
+    public CombatTimeline pause(int milliseconds)
+    {
+        return add(new Beat(null, null, milliseconds, null));
+    }
+
+    /**
+     * Queues an action to run on the EDT (e.g., checking for the end of the battle).
+     * @param action The action to run.
+     * @return This timeline, for chaining.
+     */
+    public CombatTimeline then(Runnable action)
+    {
+        return add(new Beat(null, null, 0, action));
+    }
+
+    /**
+     * Sets how long pauses last compared to normal.
+     * @param pace 1.0 for normal pacing, 0.0 to skip every pause.
+     */
+    public void setPace(float pace) { this.pace = Math.max(0f, pace); }
+
+    /**
+     * Turns beat sounds on or off (a beat without its sound moves on after its gap).
+     * @param soundEnabled Whether to play sounds.
+     */
+    public void setSoundEnabled(boolean soundEnabled) { this.soundEnabled = soundEnabled; }
+
+    /**
+     * Adds a beat and starts the timeline if it was idle.
+     */
+    private CombatTimeline add(Beat beat)
+    {
+        boolean start;
+        synchronized (beats)
+        {
+            beats.add(beat);
+            start = !running; // Only kick the scheduler if nothing is in progress
+            running = true;
+        }
+        if (start) executor.submit(this::fireNext);
+        return this;
+    }
+
+    /**
+     * Fires the next beat (runs on the executor’s thread).
+     */
+    private void fireNext()
+    {
+        Beat beat;
+        synchronized (beats)
+        {
+            beat = beats.poll();
+            if (beat == null) // Queue drained: go idle until the next beat is added
+            {
+                running = false;
+                return;
+            }
+        }
+
+        if (beat.text != null) messageSink.accept(beat.text); // Shows the message (the sink batches it onto the EDT)
+        if (beat.action != null) SwingUtilities.invokeLater(beat.action); // Runs the UI action
+
+        if (beat.soundFile != null && soundEnabled && pace > 0f)
+        {
+            playThenContinue(beat.soundFile, beat.delayAfter); // Next beat fires when the sound ends
+        }
+        else
+        {
+            continueAfter(beat.delayAfter);
+        }
+    }
+
+    /**
+     * Schedules the next beat after a (paced) delay.
+     * @param milliseconds The unscaled delay.
+     */
+    private void continueAfter(int milliseconds)
+    {
+        long delay = (long) (milliseconds * pace);
+        if (delay <= 0) executor.submit(this::fireNext);
+        else executor.schedule(this::fireNext, delay);
+    }
+
+    /**
+     * Plays a sound on the mixer’s SFX bus and continues the timeline once it ends.
+     * The mixer always reports the end (even with no audio device, a missing file or
+     * no free voice), so no fallback timer is needed.
+     * @param soundFile The path to the sound file (e.g., "src/resources/player_attack.wav").
+     * @param delayAfter The gap to wait after the sound ends.
+     */
+    private void playThenContinue(String soundFile, int delayAfter)
+    {
+        SoundBank.shared().play(soundFile, () -> continueAfter(delayAfter)); // continueAfter only schedules, so it’s safe on the mixer thread
+    }
+
+    /**
+     * One queued step of the timeline.
+     */
+    private static class Beat
+    {
+        final String text; // Message to show (or null)
+        final String soundFile; // Sound to play (or null)
+        final int delayAfter; // Gap before the next beat (milliseconds)
+        final Runnable action; // UI action to run (or null)
+
+        Beat(String text, String soundFile, int delayAfter, Runnable action)
+        {
+            this.text = text;
+            this.soundFile = soundFile;
+            this.delayAfter = delayAfter;
+            this.action = action;
+        }
+    }
+}
\ No newline at end of file
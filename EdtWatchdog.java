@@ -0,0 +1,219 @@
+import javax.swing.AbstractButton; // Imports buttons, to name event sources by their label
+import java.awt.*; // Imports the event queue and AWT events
+import java.awt.event.InvocationEvent; // Imports invokeLater/Timer events
+import java.util.ArrayDeque; // Imports the list of recent stalls
+import java.util.ArrayList; // Imports list used to sort sources for the report
+import java.util.Comparator; // Imports sorting for the report
+import java.util.List; // Imports List interface
+import java.util.Map; // Imports Map interface
+import java.util.concurrent.ConcurrentHashMap; // Imports thread-safe map of histograms by source
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.concurrent.locks.LockSupport; // Imports parking for the watchdog thread
+
+/**
+ * Watchdog for the Event Dispatch Thread (EDT).
+ * It replaces the system event queue with one that times every event it dispatches and
+ * records the time in a histogram per event source (e.g., "MouseEvent on JButton[Talk]").
+ * A watchdog thread checks the event in progress; once it has run longer than the stall
+ * threshold, the EDT’s stack is captured while it is still stuck, so a freeze in the field
+ * comes with the line that caused it. Everything is summed up by report().
+ * Turned off with -Dcarby.watchdog=false; the threshold is -Dcarby.stallMs (default 200).
+ */
+public class EdtWatchdog extends EventQueue
+{
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("carby.watchdog", "true"));
+    static final long STALL_MS = Long.getLong("carby.stallMs", 200); // Longest an event may run before it counts as a stall
+    private static final long CHECK_NANOS = 50_000_000L; // How often the watchdog looks at the EDT
+    private static final int MAX_SOURCES = 64; // Sources tracked on their own; the rest share "other"
+    private static final int MAX_STALLS = 10; // Stalls kept for the report
+
+    private static final EdtWatchdog shared = new EdtWatchdog(); // The game’s watchdog
+
+    private final LatencyHistogram all = new LatencyHistogram(); // Every event
+    private final Map<String, LatencyHistogram> bySource = new ConcurrentHashMap<>(); // Events by source
+    private final ArrayDeque<Stall> stalls = new ArrayDeque<>(); // Most recent stalls (guarded by itself)
+    private final AtomicLong stallCount = new AtomicLong(); // Stalls seen
+
+    // The event in progress, watched by the watchdog thread
+    private volatile Thread edt; // The thread dispatching events
+    private volatile long started; // When the current event started (0 when idle)
+    private volatile long sequence; // Counts events, so each stall is reported once
+    private volatile String source; // The current event’s source
+    private int depth; // Nested dispatches (a modal dialog runs its own loop inside an event; EDT only)
+    private boolean nested; // Whether the outermost event ran a nested loop (EDT only)
+    private volatile boolean installed; // Whether install() has run
+
+    /**
+     * Gets the watchdog used by the game.
+     * @return The shared watchdog.
+     */
+    public static EdtWatchdog shared() { return shared; }
+
+    /**
+     * Replaces the system event queue with the watchdog and starts the watchdog thread.
+     * Does nothing if the watchdog is turned off or already installed.
+     */
+    public synchronized void install()
+    {
+        if (!ENABLED || installed) return;
+        installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(this); // Events queued so far move over
+        Thread watcher = new Thread(this::watch, "edt-watchdog");
+        watcher.setDaemon(true); // Doesn’t keep the game running after the window closes
+        watcher.start();
+    }
+
+    /**
+     * Dispatches an event and records how long it took (EDT).
+     * @param event The event to dispatch.
+     */
+    @Override
+    protected void dispatchEvent(AWTEvent event)
+    {
+        String name = sourceOf(event);
+        if (depth > 0) nested = true; // The outer event is waiting in a modal loop, not working
+        depth++;
+        long start = System.nanoTime();
+        edt = Thread.currentThread();
+        source = name;
+        sequence++;
+        started = start;
+        try
+        {
+            super.dispatchEvent(event);
+        }
+        finally
+        {
+            depth--;
+            started = 0; // Idle (or back in a modal loop, which waits rather than works)
+            boolean outerWithModal = depth == 0 && nested;
+            if (depth == 0) nested = false;
+            if (!outerWithModal) // An event that opened a modal dialog would count the time the dialog was open
+            {
+                long elapsed = System.nanoTime() - start;
+                all.record(elapsed);
+                histogram(name).record(elapsed);
+            }
+        }
+    }
+
+    /**
+     * Checks the event in progress and captures the EDT stack once it stalls (watchdog thread).
+     */
+    private void watch()
+    {
+        long reported = -1; // Sequence of the last event reported
+        while (true)
+        {
+            LockSupport.parkNanos(CHECK_NANOS);
+            long current = sequence; // Read before started: a newer event only ever clears it or sets its own
+            long start = started;
+            Thread thread = edt;
+            if (start == 0 || thread == null || current == reported) continue;
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMs < STALL_MS) continue;
+            StackTraceElement[] stack = thread.getStackTrace(); // Taken while the EDT is still stuck
+            if (sequence != current) continue; // The event finished while we looked
+            reported = current;
+            Stall stall = new Stall(source, elapsedMs, stack);
+            stallCount.incrementAndGet();
+            synchronized (stalls)
+            {
+                if (stalls.size() == MAX_STALLS) stalls.removeFirst();
+                stalls.addLast(stall);
+            }
+            System.err.println("EDT stalled for " + elapsedMs + " ms in " + stall.source + ":\n" + stall.stackText()); // Prints where
+        }
+    }
+
+    /**
+     * Gets the histogram for a source (sources past the cap share one).
+     */
+    private LatencyHistogram histogram(String name)
+    {
+        LatencyHistogram histogram = bySource.get(name);
+        if (histogram != null) return histogram;
+        if (bySource.size() >= MAX_SOURCES) name = "other";
+        return bySource.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Names an event’s source, e.g. "MouseEvent on JButton[Talk]" or "InvocationEvent" for invokeLater.
+     */
+    private static String sourceOf(AWTEvent event)
+    {
+        String kind = event.getClass().getSimpleName();
+        if (event instanceof InvocationEvent) return kind; // Source is the toolkit, which says nothing
+        Object source = event.getSource();
+        if (source instanceof AbstractButton)
+        {
+            return kind + " on " + source.getClass().getSimpleName() + "[" + ((AbstractButton) source).getText() + "]";
+        }
+        return kind + " on " + (source == null ? "null" : source.getClass().getSimpleName());
+    }
+
+    /**
+     * Sums up EDT latency: all events, the slowest sources and the most recent stalls.
+     * @return The report, several lines long.
+     */
+    public String report()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append("EDT events: ").append(all.summary()).append('\n');
+        report.append("Stalls over ").append(STALL_MS).append(" ms: ").append(stallCount.get()).append('\n');
+
+        List<Map.Entry<String, LatencyHistogram>> sources = new ArrayList<>(bySource.entrySet());
+        sources.sort(Comparator.comparingDouble((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getMaxMillis()).reversed());
+        report.append("Slowest sources:\n");
+        for (int i = 0; i < Math.min(10, sources.size()); i++)
+        {
+            Map.Entry<String, LatencyHistogram> entry = sources.get(i);
+            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().summary()).append('\n');
+        }
+
+        synchronized (stalls)
+        {
+            for (Stall stall : stalls)
+            {
+                report.append("Stall: ").append(stall.millis).append(" ms in ").append(stall.source).append('\n');
+                report.append(stall.stackText());
+            }
+        }
+        return report.toString();
+    }
+
+    // Metrics
+    public LatencyHistogram getAll() { return all; }
+    public long getStallCount() { return stallCount.get(); }
+    public boolean isInstalled() { return installed; }
+
+    /**
+     * One stall: where the EDT was stuck and for how long.
+     */
+    private static class Stall
+    {
+        final String source; // The event that stalled
+        final long millis; // How long it had run when caught
+        final StackTraceElement[] stack; // The EDT’s stack at that moment
+
+        Stall(String source, long millis, StackTraceElement[] stack)
+        {
+            this.source = source;
+            this.millis = millis;
+            this.stack = stack;
+        }
+
+        /**
+         * Formats the top of the stack, one frame per line.
+         */
+        String stackText()
+        {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < Math.min(12, stack.length); i++) // The frames that matter are near the top
+            {
+                text.append("    at ").append(stack[i]).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -1,4 +1,4 @@
-import java.util.Random; // Imports Random class for generating random numbers
+import java.util.random.RandomGenerator; // Imports the random generator interface for picking attacks
 
 /**
  * Abstract base class for all enemies in the game. Defines common properties and behaviors,
@@ -10,7 +10,6 @@ abstract class Enemy
     protected String name; // Enemy’s name (e.g., "Spicy Chili Demon")
     protected int hp, attackPower, speed; // Stats: health points, attack strength, speed
     protected String[] attackTypes; // Array of attack names unique to each enemy
-    protected Random rand = new Random(); // Random object to pick attacks randomly
     protected String spritePath; // Path to the enemy's sprite image
 
     /**
@@ -37,9 +36,10 @@ abstract class Enemy
 
     /**
      * Randomly selects one of the enemy’s attack types.
+     * @param rand The random source to roll with (e.g., the battle’s generator).
      * @return A string representing the chosen attack (e.g., "Flambé Blast").
      */
-    public String chooseAttack() 
+    public String chooseAttack(RandomGenerator rand) 
     {
         int roll = rand.nextInt(attackTypes.length); // Picks a random index (0 to length-1)
         return attackTypes[roll]; // Returns the attack at that index
@@ -156,13 +156,48 @@ class PretentiousGourmetCritic extends Enemy
     }
 }
 
+/**
+ * Subclass representing Chef Carby, the boss fought from the "Talk to Carby" screen.
+ */
+class ChefCarby extends Enemy 
+{
+    /**
+     * Constructor: Creates Chef Carby with base stats scaled by player level.
+     * @param playerLevel The player’s level to adjust difficulty.
+     */
+    public ChefCarby(int playerLevel)
+    {
+        super("Chef Carby", 200, 20, 15, "Carby.png"); // Calls Enemy constructor with base stats
+        this.attackTypes = new String[] {"Fiery Flambé", "Perfect Plating"}; // Sets Carby’s attacks
+        scaleStats(playerLevel); // Scales stats based on player level
+    }
+
+    /**
+     * Scales Chef Carby’s stats based on the player’s level.
+     * @param playerLevel The player’s level to increase difficulty.
+     */
+    @Override
+    void scaleStats(int playerLevel) 
+    {
+        this.hp += playerLevel * 10; // Increases HP by 10 per player level
+        this.attackPower += playerLevel * 5; // Increases attack by 5 per level
+        this.speed += playerLevel * 2; // Increases speed by 2 per level
+    }
+}
+
 /**
  * Factory class responsible for creating random enemy instances based on the player’s level.
  * This class uses a switch statement to select and instantiate one of several enemy types.
  */
 class EnemyFactory 
 {
-    private static Random rand = new Random(); // Static Random object shared by all calls
+    // Enemy type codes (used by createEnemy and the balance tools)
+    static final int SPICY_CHILI_DEMON = 0;
+    static final int SUSHI_SAMURAI = 1;
+    static final int GOURMET_CRITIC = 2;
+    static final int CHEF_CARBY = 3; // Boss, never picked at random
+    static final int ENEMY_TYPE_COUNT = 4; // Number of enemy types including the boss
+    static final int RANDOM_ENEMY_TYPES = 3; // Number of enemy types picked at random
 
     /**
      * Creates a random enemy based on the player’s current level.
@@ -171,19 +206,44 @@ class EnemyFactory
      */
     public static Enemy createEnemy(int playerLevel)
     {
-        int type = rand.nextInt(3); // Generates a random number (0, 1, or 2) for enemy type
+        int type = GameRandom.session().spawning().nextInt(RANDOM_ENEMY_TYPES); // Generates a random number (0, 1, or 2) for enemy type
+        return createEnemy(type, playerLevel);
+    }
 
-        // Switch statement: picks an enemy based on the random number
+    /**
+     * Creates a specific enemy type based on the player’s current level.
+     * @param type The enemy type code (e.g., SUSHI_SAMURAI).
+     * @param playerLevel The player’s current level, used to scale the enemy’s stats.
+     * @return An instance of the matching Enemy subclass.
+     */
+    public static Enemy createEnemy(int type, int playerLevel)
+    {
+        // Switch statement: picks an enemy based on the type code
         switch (type) 
         {
-            case 0: // If type is 0
+            case SPICY_CHILI_DEMON: // If type is 0
                 return new SpicyChiliDemon(playerLevel); // Creates and returns a Spicy Chili Demon
-            case 1: // If type is 1
+            case SUSHI_SAMURAI: // If type is 1
                 return new SushiSamurai(playerLevel); // Creates and returns a Sushi Samurai
-            case 2: // If type is 2
+            case GOURMET_CRITIC: // If type is 2
                 return new PretentiousGourmetCritic(playerLevel); // Creates and returns a Critic
-            default: // Fallback if something goes wrong (shouldn’t happen with nextInt(3))
+            case CHEF_CARBY: // If type is 3
+                return new ChefCarby(playerLevel); // Creates and returns the Carby boss
+            default: // Fallback if something goes wrong
                 return new SpicyChiliDemon(playerLevel); // Returns a Spicy Chili Demon
         }
     }
+
+    /**
+     * Gets the type code of an enemy (the reverse of createEnemy).
+     * @param enemy The enemy.
+     * @return Its type code (e.g., CHEF_CARBY).
+     */
+    public static int typeOf(Enemy enemy)
+    {
+        if (enemy instanceof SushiSamurai) return SUSHI_SAMURAI;
+        if (enemy instanceof PretentiousGourmetCritic) return GOURMET_CRITIC;
+        if (enemy instanceof ChefCarby) return CHEF_CARBY;
+        return SPICY_CHILI_DEMON;
+    }
 }
\ No newline at end of file
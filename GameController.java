@@ -0,0 +1,477 @@
+import java.util.ArrayList; // Imports ArrayList, a resizable list for storing NPCs
+import java.util.Collections; // Imports read-only list views
+import java.util.List; // Imports List interface
+import java.util.function.Consumer; // Imports the state-change callback type
+
+/**
+ * Game flow for Cooking with Carby, independent of how it is shown.
+ * The controller holds the game’s state (the player, battles fought, NPCs met) and the
+ * screen the game is on, and every move between screens is a method that checks it is
+ * allowed from the current state. Unlock rules live here too, so the Swing window and
+ * the HeadlessRunner play by exactly the same rules. A view is told about every
+ * transition and draws the new state; it never changes the game state itself.
+ * Each controller has its own GameRandom, so many games can run side by side.
+ * A controller belongs to one thread at a time (the EDT for the game window, or the
+ * thread running an auto-cook while the game is in AUTO_COOK).
+ */
+public class GameController
+{
+    /**
+     * The screens the game can be on.
+     */
+    enum State { TITLE, CLASS_SELECT, TUTORIAL, MAIN_MENU, STATS, CARBY, CITY, NPC, COMBAT, AUTO_COOK }
+
+    // Unlock rules: battles fought before each menu option opens
+    static final int TALK_UNLOCK = 0;
+    static final int STATS_UNLOCK = 1;
+    static final int REST_UNLOCK = 2;
+    static final int CITY_UNLOCK = 3;
+    static final int AUTO_COOK_UNLOCK = 1;
+    static final int CARBY_CHALLENGE_LEVEL = 10; // Level at which Carby can be challenged
+    static final int RESIDENT_GIFT_LEVEL = 2; // City residents give their gift up to this level
+
+    // NPC responses (how much each changes affection)
+    static final int PRAISE = 3;
+    static final int CHAT = 1;
+    static final int INSULT = -3;
+
+    private final GameRandom random; // This game’s random streams
+    private final Consumer<State> view; // Told about every transition
+    private State state = State.TITLE; // The screen the game is on
+    private Player player; // Created when a class is chosen
+    private int battleCount; // Battles finished (won or lost)
+    private final List<NPCFactory.NPC> encounteredNPCs = new ArrayList<>(); // NPCs met so far
+    private NPCFactory.NPC currentNPC; // NPC being talked to on the NPC screen
+    private boolean currentNPCIsNew; // Whether that NPC was just met for the first time
+    private Enemy enemy; // Enemy of the battle in progress
+    private int carbyDefeats; // Times Carby has been beaten
+    private Journal journal; // Records every change for crash recovery (null if not journaled)
+    private ReplayFile.Recorder recorder; // Records auto-cooked battles (created on first use)
+
+    /**
+     * Constructor: Starts a game on the title screen.
+     * @param random The game’s random streams (e.g., GameRandom.session()).
+     * @param view Called with the new state after every transition.
+     */
+    public GameController(GameRandom random, Consumer<State> view)
+    {
+        this.random = random;
+        this.view = view;
+    }
+
+    /**
+     * Records every change to the game from the next new or resumed game on.
+     * @param journal The journal (e.g., Journal.shared()).
+     */
+    public void setJournal(Journal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Title screen: starts a new game (goes to class selection).
+     */
+    public void newGame()
+    {
+        require("start a game", State.TITLE);
+        moveTo(State.CLASS_SELECT);
+    }
+
+    /**
+     * Title screen: continues a saved game (goes straight to the main menu).
+     * @param saved The save read by SaveGame.load().
+     */
+    public void resume(SaveGame.Data saved)
+    {
+        require("continue a game", State.TITLE);
+        player = saved.player;
+        battleCount = saved.battleCount;
+        carbyDefeats = saved.carbyDefeats;
+        encounteredNPCs.clear();
+        encounteredNPCs.addAll(saved.npcs);
+        if (journal != null) journal.begin(this);
+        moveTo(State.MAIN_MENU);
+    }
+
+    /**
+     * Creates the player and moves on to the tutorial.
+     * @param name The player’s name (blank becomes "Chef").
+     * @param classType The class (e.g., "Sous Chef").
+     */
+    public void chooseClass(String name, String classType)
+    {
+        require("choose a class", State.CLASS_SELECT);
+        if (classType == null) throw new IllegalArgumentException("No class chosen");
+        player = new Player(name == null || name.isEmpty() ? "Chef" : name, classType);
+        if (journal != null) journal.begin(this);
+        moveTo(State.TUTORIAL);
+    }
+
+    /**
+     * Ends the tutorial and opens the main menu.
+     */
+    public void finishTutorial()
+    {
+        require("finish the tutorial", State.TUTORIAL);
+        moveTo(State.MAIN_MENU);
+    }
+
+    /**
+     * Goes back to the main menu from a menu screen (stats, Carby, city, NPC, or the menu itself).
+     */
+    public void openMenu()
+    {
+        require("open the menu", State.MAIN_MENU, State.STATS, State.CARBY, State.CITY, State.NPC);
+        moveTo(State.MAIN_MENU);
+    }
+
+    /**
+     * Opens the stats screen.
+     */
+    public void viewStats()
+    {
+        require("view stats", State.MAIN_MENU);
+        requireUnlocked(canViewStats(), "Stats");
+        moveTo(State.STATS);
+    }
+
+    /**
+     * Opens the conversation with Carby.
+     */
+    public void talkToCarby()
+    {
+        require("talk to Carby", State.MAIN_MENU);
+        requireUnlocked(canTalk(), "Talking to Carby");
+        moveTo(State.CARBY);
+    }
+
+    /**
+     * Rests, restoring the player to full HP (stays on the main menu).
+     */
+    public void rest()
+    {
+        require("rest", State.MAIN_MENU);
+        requireUnlocked(canRest(), "Resting");
+        player.restoreHealth(player.getMaxHP() - player.getHP());
+    }
+
+    /**
+     * Goes into the city.
+     */
+    public void enterCity()
+    {
+        require("enter the city", State.MAIN_MENU);
+        requireUnlocked(canEnterCity(), "The city");
+        moveTo(State.CITY);
+    }
+
+    /**
+     * Visits one of the city’s residents, who gives their gift while the player is still new.
+     * @param effect The resident’s gift (e.g., "Flavor Boost").
+     * @return What the gift did, or null if the player is past the gift level.
+     */
+    public String visitResident(String effect)
+    {
+        require("visit a resident", State.CITY);
+        if (player.getLevel() > RESIDENT_GIFT_LEVEL) return null;
+        return applyEffect(effect);
+    }
+
+    /**
+     * Runs into an NPC in the city: a new one half the time (or if none were met yet), otherwise one met before.
+     * @return The NPC.
+     */
+    public NPCFactory.NPC meetNPC()
+    {
+        require("meet an NPC", State.CITY);
+        currentNPCIsNew = encounteredNPCs.isEmpty() || random.npcs().nextDouble() < 0.5; // 50% chance of new NPC
+        if (currentNPCIsNew)
+        {
+            currentNPC = NPCFactory.createNPC(random.npcs());
+            encounteredNPCs.add(currentNPC);
+            if (journal != null) journal.npcMet(encounteredNPCs.size() - 1, currentNPC.getName());
+        }
+        else
+        {
+            currentNPC = encounteredNPCs.get(random.npcs().nextInt(encounteredNPCs.size()));
+        }
+        moveTo(State.NPC);
+        return currentNPC;
+    }
+
+    /**
+     * Answers the current NPC, changing their affection and applying any effect that earns.
+     * @param response PRAISE, CHAT or INSULT.
+     * @return The effect’s name ("No Effect" for a chat).
+     */
+    public String respondToNPC(int response)
+    {
+        require("answer an NPC", State.NPC);
+        currentNPC.interact(response);
+        if (journal != null) journal.npcAffection(encounteredNPCs.indexOf(currentNPC), currentNPC.getAffectionLevel());
+        if (response == CHAT) return "No Effect"; // Small talk never has an effect
+        return currentNPC.getEffect(random.npcs());
+    }
+
+    /**
+     * Applies a buff or debuff to the player.
+     * @param effect The effect (e.g., "Stamina Boost").
+     * @return A line describing what happened.
+     */
+    public String applyEffect(String effect)
+    {
+        switch (effect) // Checks effect string and applies changes
+        {
+            case "Stamina Boost":
+                player.setStamina(player.getStamina() + 2); // Boosts stamina
+                return "Your stamina surges! +2 Stamina";
+            case "Creative Spark":
+                player.setCreativity(player.getCreativity() + 3); // Boosts creativity
+                return "A spark ignites your mind! +3 Creativity";
+            case "Speed Rush":
+                player.setSpeed(player.getSpeed() + 2); // Boosts speed
+                return "You move like the wind! +2 Speed";
+            case "Flavor Boost":
+                player.setFlavorSense(player.getFlavorSense() + 2); // Boosts flavor sense
+                return "Your palate sharpens! +2 Flavor Sense";
+            case "Burned Fingers":
+                player.takeDamage(15); // Deals 15 damage
+                return "Ouch! Your fingers burn, losing 15 HP";
+            case "Overwhelmed":
+                player.setSpeed(player.getSpeed() - 1); // Reduces speed
+                return "You feel overwhelmed! -1 Speed";
+            case "Soggy Dish":
+                player.setPrecision(player.getPrecision() - 1); // Reduces precision
+                return "A soggy mess dulls your skill! -1 Precision";
+            case "Critic’s Curse":
+                player.setCreativity(player.getCreativity() - 2); // Reduces creativity
+                return "Harsh words sap your spirit! -2 Creativity";
+            default:
+                return "Nothing happens..."; // No effect
+        }
+    }
+
+    /**
+     * Starts a battle against a random enemy scaled to the player’s level.
+     * @return The enemy.
+     */
+    public Enemy startBattle()
+    {
+        require("start a battle", State.MAIN_MENU);
+        int type = random.spawning().nextInt(EnemyFactory.RANDOM_ENEMY_TYPES); // Picks from this game’s spawn stream
+        return beginBattle(EnemyFactory.createEnemy(type, player.getLevel()));
+    }
+
+    /**
+     * Starts the battle against Carby.
+     * @return Carby, scaled to the player’s level.
+     */
+    public Enemy challengeCarby()
+    {
+        require("challenge Carby", State.CARBY);
+        requireUnlocked(canChallengeCarby(), "Challenging Carby");
+        return beginBattle(new ChefCarby(player.getLevel()));
+    }
+
+    /**
+     * Enters the combat state with an enemy.
+     */
+    private Enemy beginBattle(Enemy opponent)
+    {
+        enemy = opponent;
+        moveTo(State.COMBAT);
+        return opponent;
+    }
+
+    /**
+     * Creates the engine for the battle in progress, seeded from this game’s combat stream.
+     * @return The engine (the presenter or runner drives its turns).
+     */
+    public BattleEngine createEngine()
+    {
+        require("fight", State.COMBAT);
+        return new BattleEngine(player, enemy, random.nextBattleSeed());
+    }
+
+    /**
+     * Records the end of the battle in progress (won or lost). The game stays on the
+     * battle screen until endCombat.
+     */
+    public void finishBattle()
+    {
+        require("finish a battle", State.COMBAT);
+        countBattle();
+    }
+
+    /**
+     * Counts a finished battle (and a win against Carby).
+     */
+    private void countBattle()
+    {
+        battleCount++;
+        if (enemy instanceof ChefCarby && enemy.getHP() <= 0) carbyDefeats++;
+        if (journal != null)
+        {
+            journal.set(Journal.BATTLES, battleCount);
+            journal.set(Journal.CARBY_DEFEATS, carbyDefeats);
+        }
+    }
+
+    /**
+     * Starts an auto-cook run. Until endAutoCook every other transition is refused, so the
+     * battles can be fought on another thread without anything else touching the controller.
+     */
+    public void startAutoCook()
+    {
+        require("auto-cook", State.MAIN_MENU);
+        requireUnlocked(canAutoCook(), "Auto-cook");
+        moveTo(State.AUTO_COOK);
+    }
+
+    /**
+     * Auto-cook: fights random battles back to back without the battle screen, each with the
+     * same enemy pick, seed, experience and battle count as cooking it by hand. Call between
+     * startAutoCook and endAutoCook, as often as needed; the view isn’t told about the battles.
+     * Like battles fought by hand, every battle is appended to the replay file.
+     * @param battles How many battles to fight.
+     * @param policy How the player picks attacks.
+     * @param replays Where to record the battles (null to not record them).
+     * @return What happened.
+     */
+    public AutoCook autoCook(int battles, AttackPolicy policy, ReplayFile replays)
+    {
+        require("auto-cook", State.AUTO_COOK);
+        if (replays != null && recorder == null) recorder = new ReplayFile.Recorder();
+        AutoCook summary = new AutoCook(player.getLevel());
+        for (int i = 0; i < battles; i++)
+        {
+            int type = random.spawning().nextInt(EnemyFactory.RANDOM_ENEMY_TYPES); // As startBattle picks
+            enemy = EnemyFactory.createEnemy(type, player.getLevel());
+            BattleEngine engine = new BattleEngine(player, enemy, random.nextBattleSeed());
+            AttackPolicy tactic = policy.against(enemy);
+            engine.startBattle(); // Heals player to full HP
+            if (replays != null) recorder.begin(engine, player, enemy);
+            while (!engine.isOver() && engine.getTurns() < BalanceSimulator.MAX_TURNS)
+            {
+                BattleEngine.TurnResult turn = engine.resolveTurn(tactic.chooseAttack(player, player.getHP(), enemy.getHP()));
+                if (replays != null) recorder.turn(turn);
+            }
+            if (engine.isEnemyDefeated())
+            {
+                summary.won++;
+                summary.experience += engine.awardExperience(); // Winning is the only way to gain experience
+            }
+            if (replays != null) // After the XP, so the end hash covers any level up
+            {
+                recorder.finish(engine);
+                replays.append(recorder);
+            }
+            summary.battles++;
+            summary.turns += engine.getTurns();
+            countBattle();
+        }
+        enemy = null;
+        summary.endLevel = player.getLevel();
+        return summary;
+    }
+
+    /**
+     * Ends an auto-cook run, back on the main menu.
+     */
+    public void endAutoCook()
+    {
+        require("end auto-cook", State.AUTO_COOK);
+        moveTo(State.MAIN_MENU);
+    }
+
+    /**
+     * Leaves the battle screen for the main menu.
+     */
+    public void endCombat()
+    {
+        require("leave combat", State.COMBAT);
+        enemy = null;
+        moveTo(State.MAIN_MENU);
+    }
+
+    // Unlock rules
+    public boolean canTalk() { return battleCount >= TALK_UNLOCK; }
+    public boolean canViewStats() { return battleCount >= STATS_UNLOCK; }
+    public boolean canRest() { return battleCount >= REST_UNLOCK; }
+    public boolean canEnterCity() { return battleCount >= CITY_UNLOCK; }
+    public boolean canAutoCook() { return battleCount >= AUTO_COOK_UNLOCK; }
+    public boolean canChallengeCarby() { return player.getLevel() >= CARBY_CHALLENGE_LEVEL; }
+    public int getBattlesUntilCity() { return Math.max(0, CITY_UNLOCK - battleCount); }
+
+    /**
+     * Checks the current state is one of the allowed ones.
+     */
+    private void require(String action, State... allowed)
+    {
+        for (State s : allowed)
+        {
+            if (state == s) return;
+        }
+        throw new IllegalStateException("Can't " + action + " from " + state);
+    }
+
+    /**
+     * Checks an unlock rule.
+     */
+    private void requireUnlocked(boolean unlocked, String feature)
+    {
+        if (!unlocked) throw new IllegalStateException(feature + " isn't unlocked yet");
+    }
+
+    /**
+     * Changes state and tells the view (even when the state is the same, so it can redraw).
+     */
+    private void moveTo(State next)
+    {
+        state = next;
+        view.accept(next);
+    }
+
+    // Getters
+    public State getState() { return state; }
+    public Player getPlayer() { return player; }
+    public int getBattleCount() { return battleCount; }
+    public List<NPCFactory.NPC> getEncounteredNPCs() { return Collections.unmodifiableList(encounteredNPCs); }
+    public NPCFactory.NPC getCurrentNPC() { return currentNPC; }
+    public boolean isCurrentNPCNew() { return currentNPCIsNew; }
+    public Enemy getEnemy() { return enemy; }
+    public int getCarbyDefeats() { return carbyDefeats; }
+    public GameRandom getRandom() { return random; }
+
+    /**
+     * What an auto-cook run did.
+     */
+    static class AutoCook
+    {
+        final int startLevel; // Level before the first battle
+        int endLevel; // Level after the last battle
+        int battles; // Battles fought
+        int won; // Battles won
+        long turns; // Turns taken
+        int experience; // Experience gained
+
+        AutoCook(int startLevel)
+        {
+            this.startLevel = startLevel;
+            this.endLevel = startLevel;
+        }
+
+        /**
+         * Adds a later run to this one (for a long auto-cook fought in chunks).
+         * @param later The run that followed.
+         */
+        void add(AutoCook later)
+        {
+            endLevel = later.endLevel;
+            battles += later.battles;
+            won += later.won;
+            turns += later.turns;
+            experience += later.experience;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+import java.util.concurrent.Executors; // Imports factory for the writer thread
+import java.util.concurrent.ScheduledExecutorService; // Imports the timed single-thread executor
+import java.util.concurrent.ScheduledFuture; // Imports handle for scheduled commands
+import java.util.concurrent.TimeUnit; // Imports time units for delays
+
+/**
+ * Single-writer executor for game state.
+ * All commands that change Player or Enemy during combat run on one dedicated
+ * thread, in order, so there are no data races on HP or XP and no thread is
+ * created per click. Results are handed to the UI as immutable snapshots.
+ * The game uses the shared() instance; a server could create one per session.
+ */
+public class GameExecutor
+{
+    private static final GameExecutor shared = new GameExecutor("game-writer"); // The game’s writer
+
+    private final ScheduledExecutorService writer; // The one thread that runs every command
+    private volatile Thread writerThread; // That thread, for isWriterThread()
+
+    /**
+     * Constructor: Creates an executor with its own writer thread.
+     * @param name The thread name (shows up in stack dumps).
+     */
+    public GameExecutor(String name)
+    {
+        writer = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+            writerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the executor used by the game window.
+     * @return The shared executor.
+     */
+    public static GameExecutor shared() { return shared; }
+
+    /**
+     * Runs a command on the writer thread, after every command submitted before it.
+     * @param command The command to run.
+     */
+    public void submit(Runnable command)
+    {
+        writer.execute(reporting(command));
+    }
+
+    /**
+     * Runs a command on the writer thread after a delay.
+     * @param command The command to run.
+     * @param milliseconds How long to wait first.
+     * @return A handle that can cancel the command.
+     */
+    public ScheduledFuture<?> schedule(Runnable command, long milliseconds)
+    {
+        return writer.schedule(reporting(command), milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wraps a command so an exception it throws is reported to the writer thread’s
+     * uncaught-exception handler (which prints the stack trace by default). The executor
+     * would otherwise keep it in a future nobody reads. The thread carries on with the next command.
+     * @param command The command to run.
+     * @return The wrapped command.
+     */
+    private static Runnable reporting(Runnable command)
+    {
+        return () ->
+        {
+            try
+            {
+                command.run();
+            }
+            catch (Throwable t)
+            {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        };
+    }
+
+    /**
+     * Checks whether the caller is running on the writer thread.
+     * @return True on the writer thread.
+     */
+    public boolean isWriterThread()
+    {
+        return Thread.currentThread() == writerThread;
+    }
+}
\ No newline at end of file
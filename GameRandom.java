@@ -0,0 +1,99 @@
+import java.util.SplittableRandom; // Imports the splittable generator (no shared atomic seed)
+import java.util.random.RandomGenerator; // Imports the common interface for random generators
+
+/**
+ * Central random number service for Cooking with Carby.
+ * A session is created from one seed and split into independent streams for
+ * combat, enemy spawning and NPC generation, so nothing contends on a shared
+ * atomic seed and a whole session (or any single battle) can be replayed.
+ * Each stream belongs to one thread at a time; other threads should split their own.
+ */
+public final class GameRandom
+{
+    private static volatile GameRandom session = new GameRandom(initialSeed()); // The current game session
+
+    private final long seed; // The seed this session was created from
+    private final SplittableRandom combat; // Stream that hands out battle seeds
+    private final SplittableRandom spawning; // Stream for picking enemies
+    private final SplittableRandom npcs; // Stream for NPC names, effects and encounters
+
+    /**
+     * Constructor: Creates a session and splits its streams from the given seed.
+     * @param seed The session seed.
+     */
+    public GameRandom(long seed)
+    {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed); // Root of every stream in this session
+        this.combat = root.split(); // Splits in a fixed order so the same seed gives the same streams
+        this.spawning = root.split();
+        this.npcs = root.split();
+    }
+
+    /**
+     * Picks the starting seed: the "carby.seed" system property if set, otherwise a fresh one.
+     * @return The seed for the first session.
+     */
+    private static long initialSeed()
+    {
+        Long fixed = Long.getLong("carby.seed"); // e.g. -Dcarby.seed=42 to replay a session
+        return fixed != null ? fixed : new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Gets the current session.
+     * @return The session used by the game.
+     */
+    public static GameRandom session() { return session; }
+
+    /**
+     * Replaces the current session with one created from the given seed.
+     * @param seed The new session seed.
+     */
+    public static void startSession(long seed) { session = new GameRandom(seed); }
+
+    /**
+     * Hands out the seed for the next battle from the combat stream.
+     * @return A seed that fully determines one battle’s rolls.
+     */
+    public synchronized long nextBattleSeed() { return combat.nextLong(); }
+
+    /**
+     * Creates the random source for a battle from its seed.
+     * @param battleSeed The battle seed (e.g., from nextBattleSeed).
+     * @return A new generator that replays the same rolls for the same seed, counting them.
+     */
+    public static Counting forBattle(long battleSeed) { return new Counting(new SplittableRandom(battleSeed)); }
+
+    // Getters
+    public long getSeed() { return seed; }
+    public RandomGenerator spawning() { return spawning; }
+    public RandomGenerator npcs() { return npcs; }
+
+    /**
+     * A generator that counts how many numbers have been drawn from it (its position in the stream).
+     * Draws are passed straight through, so the numbers are the same as the wrapped generator’s.
+     * Two replays of a battle that drew a different number of rolls have drifted apart even if
+     * every HP still matches, so the count is part of the battle’s state hash.
+     */
+    static final class Counting implements RandomGenerator
+    {
+        private final RandomGenerator source; // Where the numbers come from
+        private long draws; // Numbers drawn so far
+
+        Counting(RandomGenerator source)
+        {
+            this.source = source;
+        }
+
+        @Override public long nextLong() { draws++; return source.nextLong(); }
+        @Override public int nextInt() { draws++; return source.nextInt(); }
+        @Override public int nextInt(int bound) { draws++; return source.nextInt(bound); }
+        @Override public int nextInt(int origin, int bound) { draws++; return source.nextInt(origin, bound); }
+        @Override public double nextDouble() { draws++; return source.nextDouble(); }
+        @Override public boolean nextBoolean() { draws++; return source.nextBoolean(); }
+
+        // Getters
+        public long getDraws() { return draws; }
+    }
+}
\ No newline at end of file
@@ -6,10 +6,9 @@ import java.awt.event.FocusListener;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
-import javax.sound.sampled.*; // Imports tools for playing audio files (like music or sound effects)
+import javax.imageio.ImageIO; // Imports tools for decoding image files
+import java.awt.image.BufferedImage; // Imports in-memory images
 import java.io.File; // Imports File class to work with files (e.g., sound or image files)
-import java.util.ArrayList; // Imports ArrayList, a resizable list for storing objects
-import java.util.List; // Imports List interface for managing collections (like NPCs)
 
 
 /**
@@ -23,19 +22,30 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
     // Instance variables (data the class needs to keep track of)
     private JPanel visualPanel; // Panel for buttons, images (top half of window)
     private JTextArea textArea; // Text box for game messages (bottom half)
-    private Player player; // Player object (stores name, stats, etc.)
-    public int battleCount = 0; // Counts how many battles the player has fought
-    private Clip normalMusicClip; // Stores normal background music
-    private Clip combatMusicClip; // Stores combat music
-    private List<NPCFactory.NPC> encounteredNPCs = new ArrayList<>(); // List of NPCs player has met
+    private BattleLog battleLog; // Batched, capped log that battles write to the text box through
+    private GameController controller; // Game state and rules; this window draws whatever state it is in
     private String selectedClass = null; // Tracks the previewed class
-    private Clip currentMusicClip; // To track which music clip is playing
     private JPanel overlayPanel; // The main overlay container
     private JButton returnButton; // The permanent return button
     private JButton settingsButton; // The permanent settings button
     private float musicVolume = 0.6f; // Default volume (60%)
     private float soundVolume = 1.0f; // Default sound effects volume
     private boolean tutorial = false;
+    private volatile boolean turbo = Boolean.getBoolean("carby.turbo"); // Battles skip pauses, sounds and animations (read on the writer thread)
+    private boolean autoCookStopped; // Set by the Stop button during an auto-cook run
+
+    static final int MAX_AUTO_COOK = 10_000; // Most battles one auto-cook run fights
+    static final int AUTO_COOK_CHUNK = 25; // Battles per writer-thread task, so battle pacing and delays still get a turn
+    private Image backgroundImage; // Background decoded once and pre-scaled to 800x580 (null if missing)
+    private ScreenRegistry screens; // Screens built once and flipped like cards
+
+    // Parts of screens that change between visits
+    private JTextField nameField; // Name box on the class screen
+    private JButton confirmButton; // Confirm button on the class screen
+    private JButton talkButton, statsButton, restButton, cityButton, autoCookButton; // Menu buttons unlocked by battles
+    private JButton challengeButton; // Challenge button on Carby’s screen
+    private JButton continueButton; // Continue button on the title screen (shown when there is a save)
+    private SaveGame.Data savedGame; // Save read at startup (null if none)
 
 
 
@@ -48,13 +58,20 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         setTitle("Cooking with Carby"); // Sets the window title at the top
         setSize(800, 600); // Sets window size to 800 pixels wide, 600 tall
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Closes program when you click X
-        getContentPane().setBackground(new Color(139, 69, 19)); // Sets window background to brown (RGB)
+        getContentPane().setBackground(Theme.TRIM); // Sets window background to brown (RGB)
         
         // Create layered pane for proper z-ordering
         JLayeredPane layeredPane = new JLayeredPane();
         layeredPane.setPreferredSize(new Dimension(800, 600));
         setContentPane(layeredPane);
 
+        AssetManager.shared().preload(AssetManager.KNOWN_SPRITES); // Starts decoding sprites in the background
+        AudioMixer.shared().setBusGain(AudioMixer.MUSIC, musicVolume); // Applies the starting volumes
+        AudioMixer.shared().setBusGain(AudioMixer.SFX, soundVolume);
+        SoundBank.shared().preload(SoundBank.KNOWN_SOUNDS); // Decodes sound effects in the background
+        SoundBank.shared().preloadMusic("src/resources/normal_music.wav", "src/resources/combat_music.wav"); // Keeps both tracks warm
+        backgroundImage = loadBackground("src/resources/background.png", 800, 580); // Decodes the background once
+
         // Create the visual panel (top section for buttons/images)
         visualPanel = new JPanel() // JPanel is a container for GUI elements
         { 
@@ -62,19 +79,13 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
             protected void paintComponent(Graphics g) // Overrides how the panel is drawn
             { 
                 super.paintComponent(g); // Calls default drawing first
-                try // Try block: Attempts code that might fail (like loading an image)
+                if (backgroundImage != null) // Draws the cached image (a single blit, no file access)
                 { 
-                    ImageIcon backgroundIcon = new ImageIcon("src/resources/background.png"); // Loads image
-                    if (backgroundIcon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) // Checks if image loaded
-                    { 
-                        throw new Exception("Image didn’t load"); // Throws an error if image fails
-                    }
-                    g.drawImage(backgroundIcon.getImage(), 0, 0, 800, 580, this); // Draws image across panel
+                    g.drawImage(backgroundImage, 0, 0, this);
                 } 
-                catch (Exception e) // Catch block: Handles errors from try block
+                else // Falls back to a plain color
                 { 
-                    System.err.println("No background image found. Using color instead."); // Prints error
-                    g.setColor(new Color(160, 82, 45)); // Sets fallback brown color
+                    g.setColor(Theme.FALLBACK_BACKGROUND); // Sets fallback brown color
                     g.fillRect(0, 0, 800, 400); // Fills panel with this color
                 }
             }
@@ -82,7 +93,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         
         visualPanel.setBounds(0, 0, 800, 400); // Sets panel size to 800x400
         visualPanel.setOpaque(false); // Makes panel transparent (shows window background)
-        visualPanel.setLayout(null); // Uses absolute positioning (setBounds) for buttons
+        screens = new ScreenRegistry(visualPanel); // Stacks screens as cards, each built once
         layeredPane.add(visualPanel, JLayeredPane.DEFAULT_LAYER); // Adds panel
 
         // Create the text area (bottom section for messages)
@@ -90,10 +101,11 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         textArea.setEditable(false); // Player can’t type in it
         textArea.setLineWrap(true); // Text wraps to next line if too long
         textArea.setWrapStyleWord(true); // Wraps at word boundaries, not mid-word
-        textArea.setBackground(new Color(245, 222, 179)); // Sets beige background
-        textArea.setForeground(new Color(51, 25, 0)); // Sets dark brown text color
-        textArea.setFont(new Font("Matura MT Script Capitals", Font.PLAIN, 19)); // Uses Papyrus font, size 16
-        textArea.setBorder(BorderFactory.createLineBorder(new Color(139, 69, 19), 2)); // Adds 2-pixel brown border
+        textArea.setBackground(Theme.PARCHMENT); // Sets beige background
+        textArea.setForeground(Theme.INK); // Sets dark brown text color
+        textArea.setFont(Theme.font(Font.PLAIN, 19)); // Uses the game font, size 19
+        textArea.setBorder(Theme.TEXT_BORDER); // Adds 2-pixel brown border
+        battleLog = new BattleLog(textArea, BattleLog.MAX_LINES); // Battle messages reach the text area once per frame
         JScrollPane scrollPane = new JScrollPane(textArea); // Adds scrollbar to text area
         scrollPane.setBounds(0, 400, 800, 160); // Sets scrollbar size to 800x200
         scrollPane.setOpaque(false); // Makes scrollbar background transparent
@@ -106,7 +118,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         returnButton.setBounds(650, 515, 120, 40); // Position in bottom right
         returnButton.addActionListener(e -> {
             // Default action - can be overridden per screen
-            showMainMenu();
+            controller.openMenu();
         });
         layeredPane.add(returnButton, JLayeredPane.PALETTE_LAYER); // Higher layer
         
@@ -120,11 +132,37 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
 
         
         playBackgroundMusic("src/resources/normal_music.wav"); // Starts background music
+        controller = new GameController(GameRandom.session(), this::render); // Redraws on every transition
+        controller.setJournal(Journal.shared()); // Every change is journaled, so a crash loses almost nothing
+        savedGame = Journal.shared().recover(); // The journal is never older than the last save
+        if (savedGame == null) savedGame = SaveGame.shared().load(); // One mapped read, a few hundred bytes
         showTitleScreen(); // Shows title screen first
         setVisible(true); // Makes window visible on screen
         setResizable(false);
     }
 
+    /**
+     * Draws the screen for the controller’s new state (called on every transition).
+     * @param state The state the game moved to.
+     */
+    private void render(GameController.State state)
+    {
+        if (state == GameController.State.MAIN_MENU) SaveGame.shared().save(controller); // Every bit of progress passes through the menu
+        switch (state)
+        {
+            case TITLE: showTitleScreen(); break;
+            case CLASS_SELECT: showClass(); break;
+            case TUTORIAL: showTutorial(); break;
+            case MAIN_MENU: showMainMenu(); break;
+            case STATS: showStats(); break;
+            case CARBY: talkToCarby(); break;
+            case CITY: showCity(); break;
+            case NPC: showNPC(); break;
+            case COMBAT: startCombat(); break;
+            case AUTO_COOK: screens.show("cooking", this::buildCookingScreen); break; // Only Stop to click while the battles run
+        }
+    }
+
     /**
      * Creates a styled button with consistent look and sound.
      * @param text The text to display on the button.
@@ -133,12 +171,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
     private JButton createStyledButton(String text) 
     {
         JButton button = new JButton(text); // Creates button with given text
-        button.setFont(new Font("Matura MT Script Capitals", Font.BOLD, 12)); // Sets bold Papyrus font, size 14
-        button.setBackground(new Color(160, 82, 45)); // Sets brown background
-        button.setForeground(Color.WHITE); // Sets white text color
-        button.setBorder(BorderFactory.createRaisedBevelBorder()); // Adds 3D raised border
-        button.setFocusPainted(false); // Removes focus outline when clicked
-        button.setPreferredSize(new Dimension(150, 40)); // Sets button size to 150x40
+        Theme.styleButton(button, 12); // Shared font, colors and border, size 12
         button.addActionListener(e -> playSound("src/resources/button_click.wav")); // Plays sound on click
         return button; // Returns the styled button
     }
@@ -148,22 +181,35 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void showTitleScreen() 
     {
-        visualPanel.removeAll(); // Clears all buttons/images from panel
         textArea.setText("Welcome to Cooking with Carby!\n"); // Sets welcome message
+        textArea.append("Choose an option above:\n"); // Adds instruction
+        screens.screen("title", this::buildTitleScreen);
+        continueButton.setVisible(savedGame != null); // Only with a save to continue
+        screens.show("title"); // Flips to the title screen (built on first visit)
+    }
+
+    /**
+     * Builds the title screen’s buttons (runs once).
+     * @return The title screen.
+     */
+    private JPanel buildTitleScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
         JButton startButton = createStyledButton("Start Game"); // Creates "Start Game" button
         JButton exitButton = createStyledButton("Exit"); // Creates "Exit" button
+        continueButton = createStyledButton("Continue"); // Creates "Continue" button
 
-        startButton.addActionListener(e -> showClass()); // When clicked, shows tutorial
+        startButton.addActionListener(e -> controller.newGame()); // When clicked, shows class selection
+        continueButton.addActionListener(e -> controller.resume(savedGame)); // When clicked, picks up the saved game
         exitButton.addActionListener(e -> System.exit(0)); // When clicked, closes program
 
         startButton.setBounds(170, 300, 150, 40); // Positions button at x=250, y=50
         exitButton.setBounds(470, 300, 150, 40); // Positions button at x=450, y=50
-        visualPanel.add(startButton); // Adds start button to panel
-        visualPanel.add(exitButton); // Adds exit button to panel
-        textArea.append("Choose an option above:\n"); // Adds instruction
-
-        visualPanel.revalidate(); // Updates panel layout
-        visualPanel.repaint(); // Redraws panel to show changes
+        continueButton.setBounds(320, 300, 150, 40); // Between the two
+        screen.add(startButton); // Adds start button to screen
+        screen.add(continueButton); // Adds continue button to screen
+        screen.add(exitButton); // Adds exit button to screen
+        return screen;
     }
 
     /**
@@ -172,14 +218,26 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
     private void showClass() 
     {
     	setReturnButtonVisible(false); // Hide return button on main menu since it's the root screen
-        visualPanel.removeAll(); // Clears panel
         textArea.setText("Pick a cooking style to get started.\n");
         textArea.append("Enter your name: "); // Prompts for name
 
-        JTextField nameField = new JTextField(10); // Creates text box for name (10 chars wide)
-        nameField.setFont(new Font("Matura MT Script Capitals", Font.PLAIN, 14)); // Sets Papyrus font
-        nameField.setBackground(new Color(245, 222, 179)); // Sets beige background
-        nameField.setBorder(BorderFactory.createLineBorder(new Color(139, 69, 19), 1)); // Adds thin brown border
+        screens.screen("class", this::buildClassScreen);
+        selectedClass = null; // Nothing previewed yet
+        confirmButton.setVisible(false); // Shown once a class is previewed
+        screens.show("class");
+    }
+
+    /**
+     * Builds the class screen’s name box and class buttons (runs once).
+     * @return The class screen.
+     */
+    private JPanel buildClassScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
+        nameField = new JTextField(10); // Creates text box for name (10 chars wide)
+        nameField.setFont(Theme.font(Font.PLAIN, 14)); // Sets the game font
+        nameField.setBackground(Theme.PARCHMENT); // Sets beige background
+        nameField.setBorder(Theme.FIELD_BORDER); // Adds thin brown border
         nameField.setBounds(20, 361, 150, 40); // Positions text box
         nameField.setText("Enter Name Here");
         nameField.addFocusListener(new FocusListener() // Removes "Enter Name Here" when clicked
@@ -202,88 +260,84 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
 				}
 			}
 		});
-        visualPanel.add(nameField); // Adds text box to panel
+        screen.add(nameField); // Adds text box to screen
 
         JButton sousChefButton = createStyledButton("Sous Chef"); // Button for Sous Chef class
         JButton pastryArtistButton = createStyledButton("Pastry Artist"); // Button for Pastry Artist
         JButton grillMasterButton = createStyledButton("Grill Master"); // Button for Grill Master
-        JButton confirmButton = createStyledButton("Confirm");
-        confirmButton.setEnabled(false); // Disabled until a class is previewed
+        confirmButton = createStyledButton("Confirm");
         
         sousChefButton.setBounds(170, 361, 150, 40);
         pastryArtistButton.setBounds(320, 361, 150, 40);
         grillMasterButton.setBounds(470, 361, 150, 40);
         confirmButton.setBounds(620, 361, 150, 40); // Positioned after name field when enabled
         
-        sousChefButton.addActionListener(e -> {
-            selectedClass = "Sous Chef";
-            textArea.setText("Sous Chef Preview:\n");
-            textArea.append("Stats: Precision: 5, Stamina: 5, Creativity: 5, Flavor Sense: 5, Speed: 5\n");
-            textArea.append("Benefits: Balanced stats for versatility in all cooking challenges.\n");
-            textArea.append("A master of balance, the Sous Chef thrives in any kitchen, juggling tasks with ease.\n");
-            textArea.append("Click Confirm to choose this class!\n");
-            visualPanel.remove(confirmButton); // Remove old confirm button if present
-            confirmButton.setEnabled(true);
-            visualPanel.add(confirmButton);
-            visualPanel.revalidate();
-            visualPanel.repaint();
-        });
+        sousChefButton.addActionListener(e -> previewClass("Sous Chef",
+                "Stats: Precision: 5, Stamina: 5, Creativity: 5, Flavor Sense: 5, Speed: 5\n",
+                "Benefits: Balanced stats for versatility in all cooking challenges.\n",
+                "A master of balance, the Sous Chef thrives in any kitchen, juggling tasks with ease.\n"));
 
-        pastryArtistButton.addActionListener(e -> {
-            selectedClass = "Pastry Artist";
-            textArea.setText("Pastry Artist Preview:\n");
-            textArea.append("Stats: Precision: 7, Stamina: 3, Creativity: 8, Flavor Sense: 5, Speed: 4\n");
-            textArea.append("Benefits: High precision and creativity, but low health for crafting stunning dishes.\n");
-            textArea.append("With a flair for the dramatic, the Pastry Artist turns sugar into art.\n");
-            textArea.append("Click Confirm to choose this class!\n");
-            visualPanel.remove(confirmButton);
-            confirmButton.setEnabled(true);
-            visualPanel.add(confirmButton);
-            visualPanel.revalidate();
-            visualPanel.repaint();
-        });
+        pastryArtistButton.addActionListener(e -> previewClass("Pastry Artist",
+                "Stats: Precision: 7, Stamina: 3, Creativity: 8, Flavor Sense: 5, Speed: 4\n",
+                "Benefits: High precision and creativity, but low health for crafting stunning dishes.\n",
+                "With a flair for the dramatic, the Pastry Artist turns sugar into art.\n"));
 
-        grillMasterButton.addActionListener(e -> {
-            selectedClass = "Grill Master";
-            textArea.setText("Grill Master Preview:\n");
-            textArea.append("Stats: Precision: 4, Stamina: 8, Creativity: 5, Flavor Sense: 3, Speed: 7\n");
-            textArea.append("Benefits: High stamina but low speed for enduring tough cooking battles.\n");
-            textArea.append("Forged in fire, the Grill Master commands the flames with bold confidence.\n");
-            textArea.append("Click Confirm to choose this class!\n");
-            visualPanel.remove(confirmButton);
-            confirmButton.setEnabled(true);
-            visualPanel.add(confirmButton);
-            visualPanel.revalidate();
-            visualPanel.repaint();
-        });
+        grillMasterButton.addActionListener(e -> previewClass("Grill Master",
+                "Stats: Precision: 4, Stamina: 8, Creativity: 5, Flavor Sense: 3, Speed: 7\n",
+                "Benefits: High stamina but low speed for enduring tough cooking battles.\n",
+                "Forged in fire, the Grill Master commands the flames with bold confidence.\n"));
 
         confirmButton.addActionListener(e -> {
             if (selectedClass != null) 
             {
-                String name = nameField.getText().isEmpty() ? "Chef" : nameField.getText();
-                player = new Player(name, selectedClass);
-                textArea.append("\nYou picked " + selectedClass + "! Welcome to the kitchen, " + name + "!\n");
-                SwingUtilities.invokeLater(this::showTutorial); // Safely shows main menu on UI thread
+                controller.chooseClass(nameField.getText(), selectedClass); // Creates the player and moves to the tutorial
             }
         });
         
-        visualPanel.add(sousChefButton); // Adds buttons to panel
-        visualPanel.add(pastryArtistButton);
-        visualPanel.add(grillMasterButton);
+        screen.add(sousChefButton); // Adds buttons to screen
+        screen.add(pastryArtistButton);
+        screen.add(grillMasterButton);
+        screen.add(confirmButton);
+        return screen;
+    }
 
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+    /**
+     * Shows a class preview and reveals the Confirm button.
+     * @param classType The class being previewed (e.g., "Sous Chef").
+     * @param stats The class’s starting stats line.
+     * @param benefits The class’s benefits line.
+     * @param blurb A line of flavor text.
+     */
+    private void previewClass(String classType, String stats, String benefits, String blurb)
+    {
+        selectedClass = classType;
+        textArea.setText(classType + " Preview:\n");
+        textArea.append(stats);
+        textArea.append(benefits);
+        textArea.append(blurb);
+        textArea.append("Click Confirm to choose this class!\n");
+        confirmButton.setEnabled(true);
+        confirmButton.setVisible(true); // Only this button changes, so no relayout of the screen
     }
 
     
     private void showTutorial() 
     {
-    	visualPanel.removeAll(); // Clears panel
-    	showCarby();
     	textArea.setText("Carby: ");
     	textArea.append("So, today's your first day on the job.\n");
     	textArea.append("Don't think I'm going to be going easy on you just because of that - a  job's a job.\n");
     	textArea.append("Have you ever worked in a food truck before?\n");
+    	screens.show("tutorial", this::buildTutorialScreen);
+    }
+
+    /**
+     * Builds the tutorial screen with Carby and the answer buttons (runs once).
+     * @return The tutorial screen.
+     */
+    private JPanel buildTutorialScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
+        screen.add(createCarbySprite());
     	JButton noButton = createStyledButton("No"); // Combat button
     	JButton yesButton = createStyledButton("Yes"); // Combat button
     	JButton whatButton = createStyledButton("What's a 'food truck'?"); // Combat button
@@ -291,52 +345,44 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         noButton.addActionListener(e -> {
         textArea.append("Okay then, I guess I have a lot more to teach you than I previously thought.\n");
     	textArea.append("But that's okay. I've got all the time in the world\n");
-    	showMainMenuAfterDelay();
+    	afterDelay(controller::finishTutorial);
         });
         
         yesButton.addActionListener(e -> {
         textArea.append("Doesn't matter; I'm going to be teaching you everything from scratch anyway.\n");
     	textArea.append("You'll see that this one is very different from the other ones you've worked at before.\n");
-    	showMainMenuAfterDelay();
+    	afterDelay(controller::finishTutorial);
         });
         
         whatButton.addActionListener(e -> {
         textArea.append("...\n");
     	textArea.append(".....\n");
     	textArea.append("Anyway, yeah... I guess I'll show you the ropes.\n");
-    	showMainMenuAfterDelay();
+    	afterDelay(controller::finishTutorial);
         });
         
     	noButton.setBounds(20, 361, 150, 40); // Positions buttons
     	yesButton.setBounds(170, 361, 150, 40); // Positions buttons
     	whatButton.setBounds(320, 361, 150, 40); // Positions buttons
 
-        visualPanel.add(noButton); // Adds buttons to panel
-        visualPanel.add(yesButton); // Adds buttons to panel
-        visualPanel.add(whatButton); // Adds buttons to panel
-        
-        
-        
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+        screen.add(noButton); // Adds buttons to screen
+        screen.add(yesButton); // Adds buttons to screen
+        screen.add(whatButton); // Adds buttons to screen
+        return screen;
     }
     /**
-     * Delays showing the main menu by 0.5 seconds for a smooth transition.
+     * Runs a transition after 2.5 seconds for a smooth transition, unless the
+     * player has moved on to another screen in the meantime.
+     * @param transition The controller transition (e.g., controller::openMenu).
      */
-    private void showMainMenuAfterDelay() 
+    private void afterDelay(Runnable transition) 
     {
-        new Thread(() -> // Creates a new thread (runs separately so UI doesn’t freeze)
-        { 
-            try // Try block: Attempts to pause (might fail if interrupted)
-            { 
-                Thread.sleep(2500); // Pauses for 1500 milliseconds (1.5 seconds)
-                SwingUtilities.invokeLater(this::showMainMenu); // Safely shows main menu on UI thread
-            } 
-            catch (InterruptedException e) // Catches interruption error
-            { 
-                Thread.currentThread().interrupt(); // Restores interrupted status
-            }
-        }).start(); // Starts the thread
+        GameController.State from = controller.getState();
+        // Schedules on the game’s writer thread instead of starting (and sleeping) a new thread
+        GameExecutor.shared().schedule(() -> SwingUtilities.invokeLater(() ->
+        {
+            if (controller.getState() == from) transition.run(); // e.g., not if a battle started meanwhile
+        }), 2500);
     }
 
     /**
@@ -344,92 +390,185 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void showMainMenu() 
     {
-        visualPanel.removeAll(); // Clears panel
+        Player player = controller.getPlayer();
         textArea.setText("Main Menu\nLevel: " + player.getLevel() + " | Exp: " + player.getExperience() + "/" + player.getExpToLevel() + "\n");
         setReturnButtonVisible(false); // Hide return button on main menu since it's the root screen
-        textArea.append("HP: " + player.getHP() + "/" + player.getMaxHP() + " | Battles Fought: " + battleCount + "\n");
+        textArea.append("HP: " + player.getHP() + "/" + player.getMaxHP() + " | Battles Fought: " + controller.getBattleCount() + "\n");
+
+        screens.screen("menu", this::buildMenuScreen);
+        
+        if (player.getLevel() == 1 && player.getExperience() == 0)
+        {
+        	textArea.removeAll();
+        	textArea.append("Here is the main part of the truck where you'll be managing things.\n");
+        	textArea.append("Here, click on the 'COOK' button.\n");
+        }
+        
+        // Only the unlocks change between visits
+        setUnlocked(talkButton, controller.canTalk()); // Unlock rules live in the controller
+        setUnlocked(statsButton, controller.canViewStats());
+        setUnlocked(restButton, controller.canRest());
+        setUnlocked(cityButton, controller.canEnterCity());
+        setUnlocked(autoCookButton, controller.canAutoCook());
+
+        if (controller.canEnterCity()) 
+        {
+            textArea.append("\nThe city gates are now open to you!\n");
+        } 
+        else 
+        {
+            textArea.append("\nFight " + controller.getBattlesUntilCity() + " more battles to unlock the city\n");
+        }
 
+        screens.show("menu");
+    }
 
+    /**
+     * Builds the main menu’s buttons (runs once).
+     * @return The menu screen.
+     */
+    private JPanel buildMenuScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
         JButton combatButton = createStyledButton("Cook"); // Combat button
-        JButton talkButton = createStyledButton("Talk to Carby"); // Talk button
-        JButton statsButton = createStyledButton("View Stats"); // Stats button
-        JButton restButton = createStyledButton("Rest"); // Rest button
-        JButton cityButton = createStyledButton("Enter City"); // Exit button
-
-        combatButton.addActionListener(e -> startCombat()); // Starts combat
-        talkButton.addActionListener(e -> talkToCarby()); // Talks to Carby
-        statsButton.addActionListener(e -> showStats()); // Shows stats
+        talkButton = createStyledButton("Talk to Carby"); // Talk button
+        statsButton = createStyledButton("View Stats"); // Stats button
+        restButton = createStyledButton("Rest"); // Rest button
+        cityButton = createStyledButton("Enter City"); // Exit button
+        autoCookButton = createStyledButton("Auto-Cook"); // Auto-battle button
+
+        combatButton.addActionListener(e -> controller.startBattle()); // Starts combat
+        talkButton.addActionListener(e -> controller.talkToCarby()); // Talks to Carby
+        statsButton.addActionListener(e -> controller.viewStats()); // Shows stats
         restButton.addActionListener(e -> // Restores HP
         { 
-            player.restoreHealth(player.getMaxHP() - player.getHP());
+            controller.rest();
             textArea.append("You rested and feel refreshed!\n");
-            showMainMenuAfterDelay();
+            afterDelay(controller::openMenu);
         });
         cityButton.addActionListener(e -> {
-            if (battleCount >= 3) // Double check in case somehow enabled prematurely
+            if (controller.canEnterCity()) // Double check in case somehow enabled prematurely
             { 
-                showCity();
+                controller.enterCity();
             }
         });
+        autoCookButton.addActionListener(e -> autoCook()); // Fights many battles at once
 
         combatButton.setBounds(20, 361, 150, 40); // Positions buttons
         talkButton.setBounds(170, 361, 150, 40);
         statsButton.setBounds(320, 361, 150, 40);
         restButton.setBounds(470, 361, 150, 40);
         cityButton.setBounds(620, 361, 150, 40);
+        autoCookButton.setBounds(20, 311, 150, 40); // Above Cook
         
-        visualPanel.add(combatButton); // Adds buttons to panel
-        visualPanel.add(talkButton);
-        visualPanel.add(statsButton);
-        visualPanel.add(restButton);
-        visualPanel.add(cityButton);
-        
-        if (player.getLevel() == 1 && player.getExperience() == 0)
-        {
-        	textArea.removeAll();
-        	textArea.append("Here is the main part of the truck where you'll be managing things.\n");
-        	textArea.append("Here, click on the 'COOK' button.\n");
-        }
-        
-        
-        talkButton.setEnabled(battleCount >= 0); // Only enable if 3+ battles fought
-        statsButton.setEnabled(battleCount >= 1); // Only enable if 3+ battles fought
-        restButton.setEnabled(battleCount >= 2); // Only enable if 3+ battles fought
-        cityButton.setEnabled(battleCount >= 3); // Only enable if 3+ battles fought
+        screen.add(combatButton); // Adds buttons to screen
+        screen.add(talkButton);
+        screen.add(statsButton);
+        screen.add(restButton);
+        screen.add(cityButton);
+        screen.add(autoCookButton);
+        return screen;
+    }
 
-        // Style the disabled button differently
-        if (!statsButton.isEnabled()) 
-        {
-            statsButton.setBackground(new Color(100, 60, 30)); // Darker brown when disabled
-            statsButton.setForeground(new Color(180, 180, 180)); // Grey text when disabled
-            statsButton.setToolTipText("Follow the Tutorial to progress!"); // Add tooltip
-        }
-        if (!restButton.isEnabled()) 
+    /**
+     * Asks how many battles to auto-cook (up to MAX_AUTO_COOK), fights them on the writer thread
+     * with the attacks an AttackSearch picks, then shows the menu with a summary. No battle screen,
+     * pauses or sounds. Battles run AUTO_COOK_CHUNK at a time, with progress and a Stop button in between.
+     */
+    private void autoCook()
+    {
+        String answer = JOptionPane.showInputDialog(this, "How many battles? (up to " + MAX_AUTO_COOK + ")", "10");
+        int battles;
+        try
         {
-        	restButton.setBackground(new Color(100, 60, 30)); // Darker brown when disabled
-        	restButton.setForeground(new Color(180, 180, 180)); // Grey text when disabled
-        	restButton.setToolTipText("Follow the Tutorial to progress!"); // Add tooltip
+            battles = Integer.parseInt(answer.trim());
         }
-        if (!cityButton.isEnabled()) 
+        catch (NullPointerException | NumberFormatException e) // Cancelled or not a number
         {
-            cityButton.setBackground(new Color(100, 60, 30)); // Darker brown when disabled
-            cityButton.setForeground(new Color(180, 180, 180)); // Grey text when disabled
-            statsButton.setToolTipText("Follow the Tutorial to progress!"); // Add tooltip
+            return;
         }
-        
+        if (battles <= 0) return;
+        battles = Math.min(battles, MAX_AUTO_COOK);
+        autoCookStopped = false;
+        controller.startAutoCook(); // Nothing else can change the game until endAutoCook
+        textArea.setText("Cooking " + battles + " battles...\n");
+        cookChunk(battles, new GameController.AutoCook(controller.getPlayer().getLevel()));
+    }
 
-        if (battleCount >= 3) 
-        {
-            textArea.append("\nThe city gates are now open to you!\n");
-        } 
-        else 
+    /**
+     * Fights the next chunk of an auto-cook run on the writer thread, then shows progress and
+     * either queues the next chunk or finishes.
+     * @param remaining Battles still to fight.
+     * @param total What the run has done so far (EDT only).
+     */
+    private void cookChunk(int remaining, GameController.AutoCook total)
+    {
+        GameExecutor.shared().submit(() -> // The writer thread owns the player during battles
         {
-            textArea.append("\nFight " + (3 - battleCount) + " more battles to unlock the city\n");
-        }
+            GameController.AutoCook chunk;
+            try
+            {
+                chunk = controller.autoCook(Math.min(AUTO_COOK_CHUNK, remaining), AttackPolicy.SEARCH, ReplayFile.shared());
+            }
+            catch (RuntimeException e) // Reported by the executor; the menu still comes back
+            {
+                SwingUtilities.invokeLater(() -> finishAutoCook(total));
+                throw e;
+            }
+            SwingUtilities.invokeLater(() ->
+            {
+                total.add(chunk);
+                int left = remaining - chunk.battles;
+                if (left <= 0 || autoCookStopped)
+                {
+                    finishAutoCook(total);
+                    return;
+                }
+                textArea.setText("Cooking... " + total.battles + " of " + (total.battles + left) + " battles, won "
+                        + total.won + ", Level " + total.endLevel + "\n");
+                cookChunk(left, total);
+            });
+        });
+    }
+
+    /**
+     * Ends an auto-cook run: back to the menu with a summary.
+     * @param total What the run did.
+     */
+    private void finishAutoCook(GameController.AutoCook total)
+    {
+        controller.endAutoCook(); // Saves and redraws the menu
+        textArea.append("\nAuto-cooked " + total.battles + " battles: won " + total.won + ", gained "
+                + total.experience + " experience");
+        textArea.append(total.endLevel > total.startLevel
+                ? ", Level " + total.startLevel + " -> " + total.endLevel + "!\n" : ".\n");
+    }
 
+    /**
+     * Builds the screen shown during an auto-cook run, with its Stop button (runs once).
+     * @return The screen.
+     */
+    private JPanel buildCookingScreen()
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the button
+        JButton stopButton = createStyledButton("Stop"); // Stops after the current chunk
+        stopButton.addActionListener(e -> autoCookStopped = true);
+        stopButton.setBounds(20, 361, 150, 40);
+        screen.add(stopButton);
+        return screen;
+    }
 
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+    /**
+     * Enables a menu button, or disables it and styles it as locked.
+     * @param button The button to update.
+     * @param unlocked Whether the player has unlocked it.
+     */
+    private void setUnlocked(JButton button, boolean unlocked)
+    {
+        button.setEnabled(unlocked);
+        button.setBackground(unlocked ? Theme.BUTTON : Theme.LOCKED); // Darker brown when disabled
+        button.setForeground(unlocked ? Theme.BUTTON_TEXT : Theme.LOCKED_TEXT); // Grey text when disabled
+        button.setToolTipText(unlocked ? null : "Follow the Tutorial to progress!"); // Add tooltip
     }
 
     /**
@@ -437,7 +576,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     public void showStats() 
     {
-        visualPanel.removeAll(); // Clears panel
+        Player player = controller.getPlayer();
         textArea.setText("Your Stats:\n"); // Shows player stats
         textArea.append("Name: " + player.getName() + "\n");
         textArea.append("Class: " + player.getClassType() + "\n");
@@ -449,24 +588,31 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         textArea.append("Flavor Sense: " + player.getFlavorSense() + "\n");
         textArea.append("Speed: " + player.getSpeed() + " (Dodge: " + player.getDodgeChance() + "%)\n");
 
+        screens.show("stats", this::buildStatsScreen);
+    }
+
+    /**
+     * Builds the stats screen’s Back button (runs once).
+     * @return The stats screen.
+     */
+    private JPanel buildStatsScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the button
         JButton backButton = createStyledButton("Back"); // Back button
-        backButton.addActionListener(e -> showMainMenu()); // Returns to main menu
+        backButton.addActionListener(e -> controller.openMenu()); // Returns to main menu
         backButton.setBounds(20, 361, 150, 40); // Positions button
-        visualPanel.add(backButton); // Adds button to panel
-
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+        screen.add(backButton); // Adds button to screen
+        return screen;
     }
 
     /**
-     * Starts a combat encounter with a random enemy.
+     * Starts the combat encounter with the controller’s enemy (a random one, or Carby).
      */
     private void startCombat() 
     {
         stopBackgroundMusic(); // Stops normal music
         playCombatMusic("src/resources/combat_music.wav"); // Plays combat music
-        Enemy enemy = EnemyFactory.createEnemy(player.getLevel()); // Creates enemy based on player level
-        Combat combat = new Combat(player, enemy, visualPanel, textArea, this); // Starts combat
+        Combat combat = new Combat(controller.getPlayer(), controller.getEnemy(), screens, battleLog, this); // Starts combat
         combat.startBattle(); // Runs the battle
     }
 
@@ -475,7 +621,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void talkToCarby() 
     {
-        visualPanel.removeAll(); // Clears panel
+        Player player = controller.getPlayer();
         textArea.setText("Carby: "); // Starts Carby’s dialogue
         if (player.getLevel() < 4) // Different messages based on level
         {
@@ -490,61 +636,54 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
             textArea.append("Wow, you’ve come so far! Ready to test your skills against me?");
         }
 
-        showCarby();
-
-        JButton backButton = createStyledButton("Back"); // Back button
-        backButton.addActionListener(e -> showMainMenu()); // Returns to main menu
-        backButton.setBounds(20, 361, 150, 40); // Positions button
-        visualPanel.add(backButton); // Adds button to panel
-
-        if (player.getLevel() >= 10) // Shows challenge button at level 10
-        { 
-            JButton challengeButton = createStyledButton("Challenge Carby");
-            challengeButton.addActionListener(e -> fightCarby());
-            challengeButton.setBounds(50, 100, 150, 40);
-            visualPanel.add(challengeButton);
-        }
-
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+        screens.screen("carby", this::buildCarbyScreen);
+        challengeButton.setVisible(controller.canChallengeCarby()); // Shows challenge button at level 10
+        screens.show("carby");
     }
 
     /**
-     * Starts a combat encounter with Carby as the enemy.
+     * Builds Carby’s screen with the Back and Challenge buttons (runs once).
+     * @return Carby’s screen.
      */
-    private void fightCarby() 
+    private JPanel buildCarbyScreen() 
     {
-        Enemy carby = new Enemy("Chef Carby", 200, 20, 15, "Carby.png") // Creates Carby enemy with base stats
-        { 
-            @Override
-            void scaleStats(int playerLevel) // Overrides to scale stats
-            { 
-                this.hp += playerLevel * 10; // Increases HP
-                this.attackPower += playerLevel * 5; // Increases attack
-                this.speed += playerLevel * 2; // Increases speed
-            }
-        };
-        carby.scaleStats(player.getLevel()); // Scales Carby’s stats
-        carby.attackTypes = new String[]{"Fiery Flambé", "Perfect Plating"}; // Sets Carby’s attacks
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
+        screen.add(createCarbySprite());
 
-        stopBackgroundMusic(); // Stops normal music
-        playCombatMusic("src/resources/combat_music.wav"); // Plays combat music
-        Combat combat = new Combat(player, carby, visualPanel, textArea, this); // Starts combat
-        combat.startBattle(); // Runs the battle
+        JButton backButton = createStyledButton("Back"); // Back button
+        backButton.addActionListener(e -> controller.openMenu()); // Returns to main menu
+        backButton.setBounds(20, 361, 150, 40); // Positions button
+        screen.add(backButton); // Adds button to screen
+
+        challengeButton = createStyledButton("Challenge Carby");
+        challengeButton.addActionListener(e -> controller.challengeCarby());
+        challengeButton.setBounds(50, 100, 150, 40);
+        screen.add(challengeButton);
+        return screen;
     }
-    
+
     /**
      * Displays the city where npc interaction takes place.
      */
     private void showCity() 
     {
-        visualPanel.removeAll(); // Clears panel
         textArea.setText("The City!/n");
         // Set return button to go back to main menu and make it visible
-        setReturnAction(this::showMainMenu);
+        setReturnAction(controller::openMenu);
         setReturnButtonVisible(true);
-        textArea.append("Vigor: " + player.getHP() + "/" + player.getMaxHP() + " | Battles Fought: " + battleCount + "\n");
+        Player player = controller.getPlayer();
+        textArea.append("Vigor: " + player.getHP() + "/" + player.getMaxHP() + " | Battles Fought: " + controller.getBattleCount() + "\n");
 
+        screens.show("city", this::buildCityScreen);
+    }
+
+    /**
+     * Builds the city’s buttons (runs once).
+     * @return The city screen.
+     */
+    private JPanel buildCityScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
         JButton vendorButton = createStyledButton("Vendor"); // Combat button
         JButton homecookButton = createStyledButton("Home Cook"); // Talk button
         JButton criticButton = createStyledButton("Critic"); // Stats button
@@ -563,139 +702,112 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         rivalButton.setBounds(470, 361, 150, 40);
         customerButton.setBounds(620, 361, 150, 40);
         
-        visualPanel.add(vendorButton); // Adds buttons to panel
-        visualPanel.add(homecookButton);
-        visualPanel.add(criticButton);
-        visualPanel.add(rivalButton);
-        visualPanel.add(customerButton);
+        screen.add(vendorButton); // Adds buttons to screen
+        screen.add(homecookButton);
+        screen.add(criticButton);
+        screen.add(rivalButton);
+        screen.add(customerButton);
 
         //if (battleCount % 3 == 0 && battleCount > 0 || player.getLevel() % 2 == 0 && player.getLevel() > 1)
         //{ 
         //    JButton npcButton = createStyledButton("Interact with NPC");
         //    npcButton.addActionListener(e -> interactWithNPC());
         //    npcButton.setBounds(550, 100, 150, 40);
-        //    visualPanel.add(npcButton);
+        //    screen.add(npcButton);
         //}
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+        return screen;
     }
     
     private void interactWithVendor()
     {
-    	visualPanel.removeAll(); // Clears panel
+    	screens.show("empty", ScreenRegistry::blank); // Clears panel
     	
-    	if (player.getLevel() <= 2)
+    	String gift = controller.visitResident("Flavor Boost"); // Only while the player is new
+    	if (gift != null)
     	{
             textArea.setText("Pip Hamstein:\n"); // Shows player stats
             textArea.append("*GERBIL NOISES*!\n");
             textArea.append("*GERBIL NOISES*!\n");
             textArea.append("\n");
             textArea.append("He presents you... something?");
-            applyNPCEffect("Flavor Boost");
+            textArea.append(gift + "\n");
     	}
     }
     
     private void interactWithHomecook()
     {
-    	visualPanel.removeAll(); // Clears panel
-    	
-    	if (player.getLevel() <= 2)
+    	String gift = controller.visitResident("Creative Spark");
+    	if (gift != null)
     	{
             textArea.setText("Liza Sharuum:\n"); // Shows player stats
             textArea.append("Hello there, dear.\n");
             textArea.append("Sorry, I thought you were one of the mushroom people I've been seeing recently!!\n");
             textArea.append("Here's a mushroom, now go along, shoo!.\n");            
-            applyNPCEffect("Creative Spark");
+            textArea.append(gift + "\n");
     	}
     	
-        // Load and display the critic sprite
-        JLabel homecookSprite = new JLabel(); 
-        try // Tries to load Enemy image
-        { 
-            ImageIcon homecookIcon = new ImageIcon("src/resources/homecook.png");
-            if (homecookIcon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) // Checks if image loaded
-            {
-                throw new Exception("Image failed to load"); // Throws error if it fails
-            }
-            homecookSprite.setIcon(homecookIcon); // Sets image to label
-        } 
-        catch (Exception e) // Catches error if image fails
-        { 
-            System.err.println("Enemy image not found at src/resources/homecook.png."); // Prints error
-            homecookSprite.setText("Enemy Image Missing"); // Shows text instead
-        }
-
-        homecookSprite.setBounds(300, 120, 300, 300); 
-        visualPanel.add(homecookSprite);
-
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
-
+        // Shows the home cook sprite (loaded from the asset cache the first time only)
+        screens.show("homecook", () -> buildSpriteScreen("src/resources/homecook.png"));
     }
     
     private void interactWithCritic()
     {
-    	visualPanel.removeAll(); // Clears panel
-    	
-    	if (player.getLevel() <= 2)
+    	String gift = controller.visitResident("Stamina Boost");
+    	if (gift != null)
     	{
             textArea.setText("Ghislain Worcestershire:\n"); // Shows player stats
             textArea.append("And who might you be... ah, I recognize you!\n");
             textArea.append("You're that new apprentice that the great Carby recruited!\n");
             textArea.append("Here... a gift.\n");            
-            applyNPCEffect("Stamina Boost");
+            textArea.append(gift + "\n");
     	}
-        // Load and display the critic sprite
-        JLabel criticSprite = new JLabel(); 
-        try // Tries to load Enemy image
-        { 
-            ImageIcon criticIcon = new ImageIcon("src/resources/critic.png");
-            if (criticIcon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) // Checks if image loaded
-            {
-                throw new Exception("Image failed to load"); // Throws error if it fails
-            }
-            criticSprite.setIcon(criticIcon); // Sets image to label
-        } 
-        catch (Exception e) // Catches error if image fails
-        { 
-            System.err.println("Enemy image not found at src/resources/critic.png."); // Prints error
-            criticSprite.setText("Enemy Image Missing"); // Shows text instead
-        }
-
-        criticSprite.setBounds(300, 120, 300, 300); 
-        visualPanel.add(criticSprite);
+        // Shows the critic sprite (loaded from the asset cache the first time only)
+        screens.show("critic", () -> buildSpriteScreen("src/resources/critic.png"));
+    }
 
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+    /**
+     * Builds a screen that shows one character sprite (runs once per sprite).
+     * @param spritePath Path to the sprite image.
+     * @return The sprite screen.
+     */
+    private JPanel buildSpriteScreen(String spritePath)
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the sprite
+        JLabel sprite = new JLabel(); 
+        AssetManager.shared().loadInto(sprite, spritePath, "Enemy Image Missing");
+        sprite.setBounds(300, 120, 300, 300); 
+        screen.add(sprite);
+        return screen;
     }
     
     private void interactWithRival()
     {
-    	visualPanel.removeAll(); // Clears panel
+    	screens.show("empty", ScreenRegistry::blank); // Clears panel
     	
-    	if (player.getLevel() <= 2)
+    	String gift = controller.visitResident("Critic's Curse");
+    	if (gift != null)
     	{
             textArea.setText("Aspar Gios:\n"); // Shows player stats
             textArea.append("HEY!\n");
             textArea.append("FRICK YOU, YOU TOOK MAH JOB!\n");
             textArea.append("YOU'RE A SECOND RATE CHEF FOR A THIRD RATE RESTAURANT, MONGREL!!!.\n");
-            applyNPCEffect("Critic's Curse");
+            textArea.append(gift + "\n");
     	}
 
     }
     
     private void interactWithCustomer()
     {
-    	visualPanel.removeAll(); // Clears panel
+    	screens.show("empty", ScreenRegistry::blank); // Clears panel
     	
-    	if (player.getLevel() <= 2)
+    	String gift = controller.visitResident("Overwhelmed");
+    	if (gift != null)
     	{
             textArea.setText("Lamce Tayk:\n"); // Shows player stats
             textArea.append("DOES ANYONE NOW WHERE I AM, WHY ARE THERE LIVING FOOD THINGS!\n");
             textArea.append("THIS ISN'T MY APARTMENT!\n");
             textArea.append("AHHHHH!!!\n");
-            Combat.pause(500);
-            applyNPCEffect("Overwhelmed");
+            textArea.append(gift + "\n");
     	}
     }
 
@@ -705,23 +817,37 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void interactWithNPC() 
     {
-        visualPanel.removeAll(); // Clears panel
-        
-        NPCFactory.NPC npc; // Declares NPC variable
-        if (encounteredNPCs.isEmpty() || Math.random() < 0.5) // 50% chance of new NPC
+        controller.meetNPC(); // New or familiar face (50/50), then the NPC screen
+    }
+
+    /**
+     * Displays the NPC screen for the controller’s current NPC.
+     */
+    private void showNPC() 
+    {
+        NPCFactory.NPC npc = controller.getCurrentNPC();
+        if (controller.isCurrentNPCNew()) 
         { 
-            npc = NPCFactory.createNPC(); // Creates new NPC
-            encounteredNPCs.add(npc); // Adds to list
             textArea.setText("A new face approaches: " + npc.getName() + "!\n");
         } 
-        else // Picks existing NPC
+        else // Met before
         { 
-            npc = encounteredNPCs.get((int)(Math.random() * encounteredNPCs.size()));
             textArea.setText("You run into " + npc.getName() + " again!\n");
         }
         textArea.append("Affection: " + npc.getAffectionLevel() + "\n"); // Shows affection level
         textArea.append("What do you say?\n"); // Prompts choice
 
+        screens.show("npc", this::buildNPCScreen);
+    }
+
+    /**
+     * Builds the NPC screen’s praise, chat and insult buttons (runs once).
+     * The buttons act on whichever NPC is current.
+     * @return The NPC screen.
+     */
+    private JPanel buildNPCScreen() 
+    {
+        JPanel screen = ScreenRegistry.blank(); // Transparent panel for the buttons
         JButton praiseButton = createStyledButton("Offer Praise"); // Praise button
         JButton chatButton = createStyledButton("Chat Casually"); // Chat button
         JButton insultButton = createStyledButton("Insult Dish"); // Insult button
@@ -729,89 +855,43 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
 
         praiseButton.addActionListener(e -> // When praise is clicked
         { 
-            npc.interact(3); // Increases affection by 3
-            String effect = npc.getEffect(); // Gets effect based on affection
+            NPCFactory.NPC npc = controller.getCurrentNPC();
+            String effect = controller.respondToNPC(GameController.PRAISE); // Increases affection by 3, gets effect
             textArea.append(npc.getName() + " beams at your praise. Affection: " + npc.getAffectionLevel() + "\n");
             textArea.append("Effect: " + effect + "\n");
-            applyNPCEffect(effect); // Applies effect
-            showMainMenuAfterDelay(); // Returns to menu
+            textArea.append(controller.applyEffect(effect) + "\n"); // Applies effect
+            afterDelay(controller::openMenu); // Returns to menu
         });
 
         chatButton.addActionListener(e -> // When chat is clicked
         { 
-            npc.interact(1); // Increases affection by 1
+            NPCFactory.NPC npc = controller.getCurrentNPC();
+            controller.respondToNPC(GameController.CHAT); // Increases affection by 1
             textArea.append(npc.getName() + " nods at your words. Affection: " + npc.getAffectionLevel() + "\n");
             textArea.append("Effect: No Effect\n");
-            showMainMenuAfterDelay();
+            afterDelay(controller::openMenu);
         });
 
         insultButton.addActionListener(e -> // When insult is clicked
         { 
-            npc.interact(-3); // Decreases affection by 3
-            String effect = npc.getEffect(); // Gets effect
+            NPCFactory.NPC npc = controller.getCurrentNPC();
+            String effect = controller.respondToNPC(GameController.INSULT); // Decreases affection by 3, gets effect
             textArea.append(npc.getName() + " scowls at your insult. Affection: " + npc.getAffectionLevel() + "\n");
             textArea.append("Effect: " + effect + "\n");
-            applyNPCEffect(effect); // Applies effect
-            showMainMenuAfterDelay();
+            textArea.append(controller.applyEffect(effect) + "\n"); // Applies effect
+            afterDelay(controller::openMenu);
         });
 
         praiseButton.setBounds(20, 361, 150, 40); // Positions buttons
         chatButton.setBounds(170, 361, 150, 40);
         insultButton.setBounds(320, 361, 150, 40);
-        visualPanel.add(praiseButton); // Adds buttons to panel
-        visualPanel.add(chatButton);
-        visualPanel.add(insultButton);
-
-        visualPanel.revalidate(); // Updates layout
-        visualPanel.repaint(); // Redraws panel
+        screen.add(praiseButton); // Adds buttons to screen
+        screen.add(chatButton);
+        screen.add(insultButton);
+        return screen;
     }
     
 
-    /**
-     * Applies buffs or debuffs from NPC interactions to the player.
-     * @param effect The effect string from NPC interaction.
-     */
-    private void applyNPCEffect(String effect) 
-    {
-        switch (effect) // Checks effect string and applies changes
-        { 
-            case "Stamina Boost":
-                player.setStamina(player.getStamina() + 2); // Boosts stamina
-                textArea.append("Your stamina surges! +2 Stamina\n");
-                break;
-            case "Creative Spark":
-                player.setCreativity(player.getCreativity() + 3); // Boosts creativity
-                textArea.append("A spark ignites your mind! +3 Creativity\n");
-                break;
-            case "Speed Rush":
-                player.setSpeed(player.getSpeed() + 2); // Boosts speed
-                textArea.append("You move like the wind! +2 Speed\n");
-                break;
-            case "Flavor Boost":
-                player.setFlavorSense(player.getFlavorSense() + 2); // Boosts flavor sense
-                textArea.append("Your palate sharpens! +2 Flavor Sense\n");
-                break;
-            case "Burned Fingers":
-                player.takeDamage(15); // Deals 15 damage
-                textArea.append("Ouch! Your fingers burn, losing 15 HP\n");
-                break;
-            case "Overwhelmed":
-                player.setSpeed(player.getSpeed() - 1); // Reduces speed
-                textArea.append("You feel overwhelmed! -1 Speed\n");
-                break;
-            case "Soggy Dish":
-                player.setPrecision(player.getPrecision() - 1); // Reduces precision
-                textArea.append("A soggy mess dulls your skill! -1 Precision\n");
-                break;
-            case "Critic’s Curse":
-                player.setCreativity(player.getCreativity() - 2); // Reduces creativity
-                textArea.append("Harsh words sap your spirit! -2 Creativity\n");
-                break;
-            default:
-                textArea.append("Nothing happens...\n"); // No effect
-        }
-    }
-
     /**
      * Ends combat and returns to the main menu.
      */
@@ -819,39 +899,37 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
     {
         stopCombatMusic(); // Stops combat music
         playBackgroundMusic("src/resources/normal_music.wav"); // Restarts normal music
-        showMainMenu(); // Shows main menu
+        controller.endCombat(); // Shows main menu
     }
 
     /**
-     * Increases the battle count after a combat ends.
+     * Gets the controller this window is a view of.
+     * @return The game’s controller.
      */
-    public void incrementBattleCount() 
+    GameController getController() 
     {
-        battleCount++; // Adds 1 to battle count
+        return controller;
     }
 
+    /**
+     * Whether battles play in turbo mode (no pauses, sounds or animations).
+     * @return True for turbo.
+     */
+    boolean isTurbo() { return turbo; }
+
+    /**
+     * Turns turbo mode on or off (kept from battle to battle).
+     * @param turbo True for turbo.
+     */
+    void setTurbo(boolean turbo) { this.turbo = turbo; }
+
     /**
      * Plays a one-time sound effect (like a button click).
+     * The sound is decoded once and mixed on the SFX bus (volume comes from soundVolume).
      * @param soundFile Path to the sound file (e.g., "src/resources/button_click.wav").
      */
     private void playSound(String soundFile) {
-        try {
-            File file = new File(soundFile);
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(file);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            
-            // Apply volume setting
-            if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                float dB = (float) (Math.log(soundVolume) / Math.log(10.0) * 20.0);
-                gainControl.setValue(dB);
-            }
-            
-            clip.start();
-        } catch (Exception e) {
-            System.err.println("Error playing sound: " + soundFile + " - " + e.getMessage());
-        }
+        SoundBank.shared().play(soundFile); // Never blocks the EDT
     }
 
     /**
@@ -860,22 +938,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void playBackgroundMusic(String musicFile) 
     {
-        try // Tries to play music (might fail if file is missing)
-        { 
-            File file = new File(musicFile); // Creates File object for music
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(file); // Prepares audio data
-            normalMusicClip = AudioSystem.getClip(); // Assigns Clip for control
-            normalMusicClip.open(audioIn); // Loads audio into Clip
-            FloatControl gainControl = (FloatControl) normalMusicClip.getControl(FloatControl.Type.MASTER_GAIN); // Gets volume control
-            float dB = (float) (Math.log(musicVolume) / Math.log(10.0) * 20.0); // Sets volume to 60% (math converts to decibels)
-            gainControl.setValue(dB); // Applies volume
-            normalMusicClip.loop(Clip.LOOP_CONTINUOUSLY); // Loops music forever
-            normalMusicClip.start(); // Starts playing
-        } 
-        catch (Exception e) // Catches errors (e.g., file not found)
-        { 
-            System.err.println("Error playing background music: " + musicFile + " - " + e.getMessage()); // Prints error
-        }
+        SoundBank.shared().playMusic(musicFile); // Crossfades in from the warm stream
     }
 
     /**
@@ -884,22 +947,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void playCombatMusic(String musicFile) 
     {
-        try // Tries to play combat music
-        { 
-            File file = new File(musicFile); // Creates File object for music
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(file); // Prepares audio data
-            combatMusicClip = AudioSystem.getClip(); // Assigns Clip for control
-            combatMusicClip.open(audioIn); // Loads audio into Clip
-            FloatControl gainControl = (FloatControl) combatMusicClip.getControl(FloatControl.Type.MASTER_GAIN); // Gets volume control
-            float dB = (float) (Math.log(musicVolume) / Math.log(10.0) * 20.0); // Sets volume to 60%
-            gainControl.setValue(dB); // Applies volume
-            combatMusicClip.loop(Clip.LOOP_CONTINUOUSLY); // Loops music forever
-            combatMusicClip.start(); // Starts playing
-        } 
-        catch (Exception e) // Catches errors
-        { 
-            System.err.println("Error playing combat music: " + musicFile + " - " + e.getMessage()); // Prints error
-        }
+        SoundBank.shared().playMusic(musicFile); // Crossfades in from the warm stream
     }
 
     /**
@@ -907,11 +955,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void stopBackgroundMusic() 
     {
-        if (normalMusicClip != null && normalMusicClip.isRunning()) // Checks if music is loaded and playing
-        { 
-            normalMusicClip.stop(); // Stops music
-            normalMusicClip.close(); // Frees resources
-        }
+        SoundBank.shared().stopMusic(); // Fades music out (overlaps the next track’s fade-in)
     }
 
     /**
@@ -919,11 +963,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     private void stopCombatMusic() 
     {
-        if (combatMusicClip != null && combatMusicClip.isRunning()) // Checks if combat music is loaded and playing
-        { 
-            combatMusicClip.stop(); // Stops music
-            combatMusicClip.close(); // Frees resources
-        }
+        SoundBank.shared().stopMusic(); // Fades music out (overlaps the next track’s fade-in)
     }
     
     /**
@@ -962,11 +1002,11 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         JPanel settingsPanel = new JPanel();
         settingsPanel.setLayout(new GridLayout(4, 1, 10, 10));
         settingsPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        settingsPanel.setBackground(new Color(245, 222, 179));
+        settingsPanel.setBackground(Theme.PARCHMENT);
         
         // Music volume slider
         JLabel musicLabel = new JLabel("Music Volume:");
-        musicLabel.setFont(new Font("Matura MT Script Capitals", Font.PLAIN, 16));
+        musicLabel.setFont(Theme.font(Font.PLAIN, 16));
         
         JSlider musicSlider = new JSlider(0, 100, (int)(musicVolume * 100));
         musicSlider.setMajorTickSpacing(25);
@@ -979,7 +1019,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         
         // Sound effects volume slider
         JLabel soundLabel = new JLabel("Sound Effects Volume:");
-        soundLabel.setFont(new Font("Matura MT Script Capitals", Font.PLAIN, 16));
+        soundLabel.setFont(Theme.font(Font.PLAIN, 16));
         
         JSlider soundSlider = new JSlider(0, 100, (int)(soundVolume * 100));
         soundSlider.setMajorTickSpacing(25);
@@ -987,6 +1027,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         soundSlider.setPaintLabels(true);
         soundSlider.addChangeListener(e -> {
             soundVolume = soundSlider.getValue() / 100f;
+            AudioMixer.shared().setBusGain(AudioMixer.SFX, soundVolume);
         });
         
         // Add components to panel
@@ -995,53 +1036,126 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
         settingsPanel.add(soundLabel);
         settingsPanel.add(soundSlider);
         
-        // Close button
+        // Close and metrics buttons
         JButton closeButton = createStyledButton("Close");
         closeButton.addActionListener(e -> settingsDialog.dispose());
+        JButton metricsButton = createStyledButton("Metrics");
+        metricsButton.addActionListener(e -> showMetricsDialog(settingsDialog));
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 2));
+        buttonPanel.add(metricsButton);
+        buttonPanel.add(closeButton);
         
         // Add to dialog
         settingsDialog.add(settingsPanel, BorderLayout.CENTER);
-        settingsDialog.add(closeButton, BorderLayout.SOUTH);
+        settingsDialog.add(buttonPanel, BorderLayout.SOUTH);
         
         settingsDialog.setVisible(true);
     }
     
     /**
-     * Updates the volume of currently playing music.
+     * Shows the performance metrics (EDT latency and stalls, assets, audio, battle log) in a dialog.
+     * @param owner The dialog to show it over.
      */
-    private void updateMusicVolume() {
-        if (normalMusicClip != null && normalMusicClip.isRunning()) {
-            FloatControl gainControl = (FloatControl) normalMusicClip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (Math.log(musicVolume) / Math.log(10.0) * 20.0);
-            gainControl.setValue(dB);
+    private void showMetricsDialog(Window owner)
+    {
+        JTextArea report = new JTextArea(metricsReport());
+        report.setEditable(false); // Can still be selected and copied into a bug report
+        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JDialog metricsDialog = new JDialog(owner, "Metrics", Dialog.ModalityType.MODELESS); // Modeless, so the game keeps being measured
+        metricsDialog.add(new JScrollPane(report));
+        metricsDialog.setSize(640, 420);
+        metricsDialog.setLocationRelativeTo(this);
+        metricsDialog.setVisible(true);
+    }
+
+    /**
+     * Builds the metrics report from every part of the game that keeps metrics.
+     * @return The report, several lines long.
+     */
+    private String metricsReport()
+    {
+        StringBuilder report = new StringBuilder();
+        EdtWatchdog watchdog = EdtWatchdog.shared();
+        report.append(watchdog.isInstalled() ? watchdog.report() : "EDT watchdog is off (-Dcarby.watchdog=false)\n");
+        AssetManager assets = AssetManager.shared();
+        report.append(String.format("Assets: hit rate %.0f%%, %d loads (%.1f ms mean), %d failures, %d evictions, %d/%d KB cached%n",
+                assets.getHitRate() * 100, assets.getLoads(), assets.getMeanLoadMillis(), assets.getFailures(),
+                assets.getEvictions(), assets.getCachedBytes() / 1024, assets.getBudgetBytes() / 1024));
+        AudioMixer mixer = AudioMixer.shared();
+        report.append(String.format("Audio: %d blocks mixed, %d sounds dropped, %s%n",
+                mixer.getBlocks(), mixer.getDropped(), mixer.hasLine() ? "playing" : "no audio device"));
+        report.append(String.format("Battle log: %d lines in %d updates, %d dropped%n",
+                battleLog.getLines(), battleLog.getDrains(), battleLog.getDropped()));
+        SaveGame save = SaveGame.shared();
+        report.append(String.format("Saves: %d (%d merged, %d failed), writes %s, load %.2f ms%n",
+                save.getSaves(), save.getSkipped(), save.getFailures(), save.getWrites().summary(), save.getLoadMillis()));
+        Journal journal = Journal.shared();
+        report.append(String.format("Journal: %d records in %d commits (%.1f per commit), %d snapshots, %d failed, commits %s%n",
+                journal.getRecords(), journal.getFrames(), journal.getRecordsPerFrame(), journal.getCompactions(),
+                journal.getFailures(), journal.getCommits().summary()));
+        JPanel battle = screens.get("battle"); // Built on the first battle
+        CombatRenderer renderer = battle instanceof Combat.BattleScreen ? ((Combat.BattleScreen) battle).renderer : null;
+        if (renderer != null)
+        {
+            report.append(String.format("Rendering: %d frames (%d dropped), %d updates, frames %s%n",
+                    renderer.getFrames(), renderer.getDroppedFrames(), renderer.getUpdates(), renderer.getFrameTimes().summary()));
         }
-        if (combatMusicClip != null && combatMusicClip.isRunning()) {
-            FloatControl gainControl = (FloatControl) combatMusicClip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (Math.log(musicVolume) / Math.log(10.0) * 20.0);
-            gainControl.setValue(dB);
+        else
+        {
+            report.append(CombatRenderer.ENABLED ? "Rendering: no battle drawn yet\n" : "Active rendering is off (-Dcarby.activeRender=true)\n");
         }
+        return report.toString();
+    }
+
+    /**
+     * Updates the volume of currently playing music.
+     */
+    private void updateMusicVolume() {
+        AudioMixer.shared().setBusGain(AudioMixer.MUSIC, musicVolume); // Ramped by the mixer, so no clicks
     }
 
-    private void showCarby()
+    /**
+     * Loads an image once and converts it to a screen-compatible image of the given size,
+     * so painting it later is a straight copy with no decoding or scaling.
+     * @param path Path to the image file (e.g., "src/resources/background.png").
+     * @param width Width to scale to.
+     * @param height Height to scale to.
+     * @return The prepared image, or null if it couldn’t be loaded (reported once).
+     */
+    private static Image loadBackground(String path, int width, int height)
     {
-        JLabel carbyLabel = new JLabel(); // Creates label for Carby’s image
-        try // Tries to load Carby’s image
+        try // Tries to decode the image (might fail if the file is missing)
         { 
-            ImageIcon carbyIcon = new ImageIcon("src/resources/carby.png");
-            if (carbyIcon.getImageLoadStatus() != java.awt.MediaTracker.COMPLETE) // Checks if image loaded
+            BufferedImage source = ImageIO.read(new File(path));
+            if (source == null) // ImageIO returns null for unknown formats
             {
-                throw new Exception("Image failed to load"); // Throws error if it fails
+                throw new Exception("Unsupported image format");
             }
-            carbyLabel.setIcon(carbyIcon); // Sets image to label
+            return AssetManager.prepare(source, width, height); // Scales once, here
         } 
-        catch (Exception e) // Catches error if image fails
+        catch (Exception e) // Handles a missing or broken file
         { 
-            System.err.println("Carby image not found at src/resources/carby.png."); // Prints error
-            carbyLabel.setText("Carby Image Missing"); // Shows text instead
+            System.err.println("No background image found. Using color instead."); // Prints error (once, not every frame)
+            return null;
         }
-        carbyLabel.setBounds(550, 150, 256, 256); // Positions image
-        visualPanel.add(carbyLabel); // Adds image to panel
+    }
+
+    /**
+     * Gets the pre-scaled background (for screens that draw it themselves).
+     * @return The background image, or null if it couldn’t be loaded.
+     */
+    Image getBackgroundImage() { return backgroundImage; }
 
+    /**
+     * Creates the animated sprite that shows Carby (each screen with Carby gets its own, once).
+     * @return The sprite, drawn from the shared sprite atlas.
+     */
+    private AnimatedSprite createCarbySprite()
+    {
+        AnimatedSprite carby = new AnimatedSprite("Carby Image Missing"); // Every Carby shares one sheet
+        carby.setSprite("src/resources/carby.png"); // Idles once the sheet has loaded
+        carby.setBounds(550, 150, 256, 256); // Positions image
+        return carby;
     }
 
     /**
@@ -1050,6 +1164,7 @@ public class GameWindow extends JFrame // Extends JFrame to make a window
      */
     public static void main(String[] args) 
     {
+        EdtWatchdog.shared().install(); // Times every UI event from the start
         new GameWindow(); // Creates new GameWindow object, running constructor to start game
     }
 } // Closes the GameWindow class
\ No newline at end of file
@@ -0,0 +1,248 @@
+import java.io.IOException; // Imports the error thrown when a script can’t be read
+import java.nio.charset.StandardCharsets; // Imports UTF-8 for reading scripts
+import java.nio.file.Files; // Imports file reading
+import java.nio.file.Paths; // Imports file paths
+import java.util.ArrayList; // Imports ArrayList, a resizable list for storing script lines
+import java.util.Arrays; // Imports the default script
+import java.util.List; // Imports List interface
+import java.util.SplittableRandom; // Imports the splittable generator that seeds each playthrough
+import java.util.stream.IntStream; // Imports the parallel stream that spreads playthroughs over all cores
+
+/**
+ * Plays Cooking with Carby without a window, driving the same GameController as the GameWindow.
+ * A script is a list of commands, one per line, each a controller transition:
+ *   start, class (e.g., "class Grill Master"), tutorial, menu, stats, rest, carby, city,
+ *   visit (e.g., "visit Flavor Boost"), npc, praise, chat, insult, cook (e.g., "cook 3"), challenge, campaign
+ * "campaign" is a simple bot that cooks until Carby can be challenged, then challenges
+ * Carby until beaten (both capped at MAX_BATTLES). Battles are fought with an AttackPolicy.
+ * Blank lines and lines starting with # are skipped. A command the rules don’t allow at
+ * that point fails the playthrough (so a script can also check the unlock rules).
+ * Every playthrough has its own controller and GameRandom split from the run seed,
+ * so thousands run in parallel and any one of them can be replayed from its seed.
+ * With -Dcarby.recordReplays=true every battle is also appended to the ReplayFile.
+ * Attacks come from AttackPolicy.STRONGEST, or the look-ahead AttackSearch with -Dcarby.policy=search.
+ */
+public class HeadlessRunner
+{
+    static final int MAX_BATTLES = 500; // Cap on the campaign bot’s battles per playthrough
+    static final boolean RECORD = Boolean.getBoolean("carby.recordReplays"); // Appends every battle to the replay file
+    static final List<String> DEFAULT_SCRIPT = Arrays.asList("start", "class Sous Chef", "tutorial", "campaign");
+
+    private final List<String> script; // Commands every playthrough runs
+    private final AttackPolicy policy; // How the player picks attacks in battle
+    private final ThreadLocal<ReplayFile.Recorder> recorders = ThreadLocal.withInitial(ReplayFile.Recorder::new); // One per worker
+
+    /**
+     * Constructor: Sets up a runner.
+     * @param script The commands to run, one per entry.
+     * @param policy The attack policy the player follows in battle.
+     */
+    public HeadlessRunner(List<String> script, AttackPolicy policy)
+    {
+        this.script = script;
+        this.policy = policy;
+    }
+
+    /**
+     * Runs many playthroughs in parallel on the common fork/join pool.
+     * @param playthroughs How many to run.
+     * @param seed The run seed (the same seed reproduces the same results).
+     * @return One Playthrough per run, in seed order.
+     */
+    public Playthrough[] run(int playthroughs, long seed)
+    {
+        long[] seeds = new long[playthroughs];
+        SplittableRandom root = new SplittableRandom(seed); // Seeds are drawn in a fixed order
+        for (int i = 0; i < playthroughs; i++) seeds[i] = root.nextLong();
+        Playthrough[] results = new Playthrough[playthroughs];
+        IntStream.range(0, playthroughs).parallel().forEach(i -> results[i] = play(seeds[i]));
+        return results;
+    }
+
+    /**
+     * Runs the script once.
+     * @param seed The playthrough’s seed (its GameRandom).
+     * @return What happened.
+     */
+    public Playthrough play(long seed)
+    {
+        Playthrough result = new Playthrough(seed);
+        GameController controller = new GameController(new GameRandom(seed), state -> result.transitions++);
+        try
+        {
+            for (String line : script)
+            {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue; // Blank or comment
+                result.commands++;
+                execute(controller, line, result);
+            }
+        }
+        catch (IllegalStateException | IllegalArgumentException e) // The rules didn’t allow a command
+        {
+            result.error = e.getMessage();
+        }
+        result.battles = controller.getBattleCount();
+        result.carbyDefeats = controller.getCarbyDefeats();
+        result.level = controller.getPlayer() == null ? 0 : controller.getPlayer().getLevel();
+        return result;
+    }
+
+    /**
+     * Runs one command against the controller.
+     */
+    private void execute(GameController controller, String line, Playthrough result)
+    {
+        int space = line.indexOf(' ');
+        String command = space < 0 ? line : line.substring(0, space);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+        switch (command)
+        {
+            case "start": controller.newGame(); break;
+            case "class": controller.chooseClass("Headless", argument); break;
+            case "tutorial": controller.finishTutorial(); break;
+            case "menu": controller.openMenu(); break;
+            case "stats": controller.viewStats(); break;
+            case "rest": controller.rest(); break;
+            case "carby": controller.talkToCarby(); break;
+            case "city": controller.enterCity(); break;
+            case "visit": controller.visitResident(argument); break;
+            case "npc": controller.meetNPC(); break;
+            case "praise": controller.applyEffect(controller.respondToNPC(GameController.PRAISE)); break;
+            case "chat": controller.respondToNPC(GameController.CHAT); break;
+            case "insult": controller.applyEffect(controller.respondToNPC(GameController.INSULT)); break;
+            case "cook":
+                int count = argument.isEmpty() ? 1 : Integer.parseInt(argument);
+                for (int i = 0; i < count; i++)
+                {
+                    controller.startBattle();
+                    fight(controller, result);
+                }
+                break;
+            case "challenge":
+                controller.challengeCarby();
+                fight(controller, result);
+                break;
+            case "campaign": campaign(controller, result); break;
+            default: throw new IllegalArgumentException("Unknown command: " + line);
+        }
+    }
+
+    /**
+     * The campaign bot: cooks until Carby can be challenged, then challenges Carby until beaten.
+     * Starts and ends on the main menu.
+     */
+    private void campaign(GameController controller, Playthrough result)
+    {
+        while (!controller.canChallengeCarby() && controller.getBattleCount() < MAX_BATTLES) // Levels up
+        {
+            controller.startBattle();
+            fight(controller, result);
+        }
+        while (controller.getCarbyDefeats() == 0 && controller.getBattleCount() < MAX_BATTLES) // Takes on Carby
+        {
+            controller.talkToCarby();
+            controller.challengeCarby();
+            fight(controller, result);
+        }
+    }
+
+    /**
+     * Fights the controller’s battle to the end the way Combat does, then returns to the menu.
+     */
+    private void fight(GameController controller, Playthrough result)
+    {
+        BattleEngine engine = controller.createEngine();
+        Player player = controller.getPlayer();
+        Enemy enemy = controller.getEnemy();
+        AttackPolicy tactic = policy.against(enemy); // e.g. a search needs the enemy’s counterattack
+        engine.startBattle(); // Heals player to full HP
+        ReplayFile replays = RECORD ? ReplayFile.shared() : null;
+        ReplayFile.Recorder recorder = recorders.get();
+        if (replays != null) recorder.begin(engine, player, enemy);
+        while (!engine.isOver() && engine.getTurns() < BalanceSimulator.MAX_TURNS) // Fights until someone drops
+        {
+            BattleEngine.TurnResult turn = engine.resolveTurn(tactic.chooseAttack(player, player.getHP(), enemy.getHP()));
+            if (replays != null) recorder.turn(turn);
+        }
+        if (engine.isEnemyDefeated()) engine.awardExperience(); // Winning is the only way to gain experience
+        if (replays != null)
+        {
+            recorder.finish(engine);
+            replays.append(recorder);
+        }
+        result.turns += engine.getTurns();
+        controller.finishBattle();
+        controller.endCombat();
+    }
+
+    /**
+     * The outcome of one playthrough.
+     */
+    static class Playthrough
+    {
+        final long seed; // Replays this playthrough
+        int commands; // Script commands run
+        int transitions; // Controller state changes
+        int battles; // Battles fought
+        long turns; // Battle turns taken
+        int carbyDefeats; // Times Carby was beaten
+        int level; // Player level at the end
+        String error; // Why the script stopped early (null if it finished)
+
+        Playthrough(long seed)
+        {
+            this.seed = seed;
+        }
+
+        public boolean isFinished() { return error == null; }
+    }
+
+    /**
+     * Runs a batch of playthroughs and prints a summary.
+     * @param args Optional: playthroughs (default 10,000), a run seed, then a script file.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int playthroughs = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : GameRandom.session().getSeed();
+        List<String> script = args.length > 2
+                ? new ArrayList<>(Files.readAllLines(Paths.get(args[2]), StandardCharsets.UTF_8))
+                : DEFAULT_SCRIPT;
+
+        long start = System.nanoTime();
+        AttackPolicy policy = "search".equals(System.getProperty("carby.policy")) ? AttackPolicy.SEARCH : AttackPolicy.STRONGEST;
+        Playthrough[] results = new HeadlessRunner(script, policy).run(playthroughs, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long battles = 0, turns = 0, transitions = 0, levels = 0, beatCarby = 0, failed = 0;
+        Playthrough firstFailure = null;
+        for (Playthrough result : results)
+        {
+            battles += result.battles;
+            turns += result.turns;
+            transitions += result.transitions;
+            levels += result.level;
+            if (result.carbyDefeats > 0) beatCarby++;
+            if (!result.isFinished())
+            {
+                failed++;
+                if (firstFailure == null) firstFailure = result;
+            }
+        }
+        int n = Math.max(1, playthroughs);
+        System.out.printf("%-22s %,12d%n", "Playthroughs", playthroughs);
+        System.out.printf("%-22s %12.2f%n", "Battles (mean)", (double) battles / n);
+        System.out.printf("%-22s %12.2f%n", "Turns (mean)", (double) turns / n);
+        System.out.printf("%-22s %12.2f%n", "Final level (mean)", (double) levels / n);
+        System.out.printf("%-22s %11.1f%%%n", "Beat Carby", 100.0 * beatCarby / n);
+        System.out.printf("%-22s %,12d%n", "Stopped early", failed);
+        if (firstFailure != null)
+        {
+            System.out.println("First stop (seed " + firstFailure.seed + "): " + firstFailure.error);
+        }
+        System.out.printf("%,d playthroughs (%,d transitions) in %.2f s = %,.0f per minute (%d cores)%n", playthroughs,
+                transitions, seconds, playthroughs / seconds * 60, Runtime.getRuntime().availableProcessors());
+        System.out.println("Seed: " + seed);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,433 @@
+import java.io.IOException; // Imports the error thrown by file operations
+import java.nio.BufferUnderflowException; // Imports the error for a record cut short
+import java.nio.ByteBuffer; // Imports the buffers records are staged, framed and replayed in
+import java.nio.MappedByteBuffer; // Imports the memory-mapped view of the journal
+import java.nio.channels.FileChannel; // Imports direct file access (appending, forcing to disk)
+import java.nio.charset.StandardCharsets; // Imports UTF-8 for NPC names
+import java.nio.file.AtomicMoveNotSupportedException; // Imports the error for file systems without atomic renames
+import java.nio.file.Files; // Imports file moves
+import java.nio.file.NoSuchFileException; // Imports the error for no journal yet
+import java.nio.file.Path; // Imports file paths
+import java.nio.file.Paths; // Imports path creation
+import java.nio.file.StandardCopyOption; // Imports the rename options
+import java.nio.file.StandardOpenOption; // Imports the file open options
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.zip.CRC32; // Imports the checksum that finds a torn write
+
+/**
+ * Autosave journal: every change to the game is appended to a file as a small delta record,
+ * so a crash loses at most the last few milliseconds instead of everything since the last save.
+ * Records say "field = value" (a player stat, HP, battles fought, an NPC’s affection), so
+ * replaying one twice does no harm. Player records them as its fields change (on the EDT or
+ * the game’s writer thread) and GameController records battles and NPCs.
+ * Appending only copies a few bytes into a staging buffer. A journal thread commits whatever
+ * has been staged as one frame (length, CRC32, records) with a single write and force, so a
+ * burst of changes (a battle turn) shares one trip to the disk (group commit).
+ * The journal also keeps the game folded up in memory; once the file passes a size threshold
+ * it is rewritten as a single snapshot frame (a SaveGame record) and starts growing again.
+ * Recovery maps the file and replays frames up to the first torn or damaged one.
+ * The file is -Dcarby.journal (default carby.journal); the threshold is -Dcarby.journalBytes
+ * (default 64 KB) and -Dcarby.journalLingerMs (default 20) is how long a commit waits for more records.
+ */
+public class Journal
+{
+    static final int MAGIC = 0x43524A4C; // "CRJL"
+    static final short VERSION = 1;
+    static final long COMPACT_BYTES = Long.getLong("carby.journalBytes", 64 * 1024); // Size that triggers a snapshot
+    static final long LINGER_MS = Long.getLong("carby.journalLingerMs", 20); // Time a commit waits to gather a burst
+    private static final int HEADER_BYTES = 6; // Magic and version
+    private static final int FRAME_HEADER_BYTES = 8; // Frame length and CRC
+
+    // Record types
+    private static final byte SET = 1; // byte field, int value
+    private static final byte NPC_MET = 2; // short index, string name
+    private static final byte NPC_AFFECTION = 3; // short index, byte affection
+    private static final byte SNAPSHOT = 4; // int length, SaveGame record
+
+    // Fields beyond the player’s (Player.LEVEL ... Player.MAX_HP)
+    static final int BATTLES = Player.FIELD_COUNT;
+    static final int CARBY_DEFEATS = Player.FIELD_COUNT + 1;
+
+    private static final Journal shared = new Journal(Paths.get(System.getProperty("carby.journal", "carby.journal"))); // The game’s journal
+
+    private final Path path; // The journal file
+    private final Path temp; // Where a snapshot is written before it replaces the journal
+
+    // Guarded by this: records staged since the last commit, and the game they add up to
+    private ByteBuffer staging = ByteBuffer.allocate(8 * 1024);
+    private int stagedRecords; // Records in staging
+    private SaveGame.Data folded; // The game as the journal has it (null until begin)
+    private boolean compactNext; // Whether the next commit rewrites the file as a snapshot
+    private Thread thread; // The journal thread (started by the first begin)
+
+    // Guarded by io: the open file
+    private final Object io = new Object();
+    private FileChannel channel; // Open for appending (null until the first snapshot)
+    private long size; // Bytes in the file
+    private ByteBuffer frame = ByteBuffer.allocateDirect(16 * 1024); // Frame being written (reused)
+
+    // Metrics
+    private final LatencyHistogram commits = new LatencyHistogram(); // Time to write and force a frame
+    private final AtomicLong records = new AtomicLong(); // Records appended
+    private final AtomicLong frames = new AtomicLong(); // Frames committed (one force each)
+    private final AtomicLong compactions = new AtomicLong(); // Snapshots written
+    private final AtomicLong failures = new AtomicLong(); // Commits that couldn’t be written
+
+    /**
+     * Constructor: Sets up a journal in a file (nothing is written until begin).
+     * @param path The journal file.
+     */
+    public Journal(Path path)
+    {
+        this.path = path;
+        this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Runtime.getRuntime().addShutdownHook(new Thread(this::commit, "journal-finish")); // Commits what is staged
+    }
+
+    /**
+     * Gets the journal used by the game.
+     * @return The shared journal.
+     */
+    public static Journal shared() { return shared; }
+
+    /**
+     * Starts journaling a game: the file is replaced by a snapshot of it, and every change
+     * the player makes from here on is recorded. Call when a game starts or is resumed.
+     * @param controller The game (must have a player).
+     */
+    public void begin(GameController controller)
+    {
+        SaveGame.Data start;
+        try
+        {
+            start = SaveGame.decode(ByteBuffer.wrap(SaveGame.encode(controller))); // A private copy to fold changes into
+        }
+        catch (IOException e) // Can’t happen: the record was just encoded
+        {
+            throw new IllegalStateException(e);
+        }
+        synchronized (this)
+        {
+            folded = start;
+            staging.clear(); // Anything staged belonged to the previous game
+            stagedRecords = 0;
+            compactNext = true;
+            if (thread == null)
+            {
+                thread = new Thread(this::commitLoop, "journal");
+                thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+                thread.start();
+            }
+            notifyAll();
+        }
+        controller.getPlayer().setJournal(this);
+    }
+
+    /**
+     * Records a field’s new value (a Player field code, BATTLES or CARBY_DEFEATS).
+     * @param field The field.
+     * @param value Its new value.
+     */
+    public synchronized void set(int field, int value)
+    {
+        if (folded == null) return; // Not journaling
+        room(6).put(SET).put((byte) field).putInt(value);
+        apply(folded, field, value);
+        staged();
+    }
+
+    /**
+     * Records an NPC met for the first time.
+     * @param index The NPC’s place in the list of NPCs met.
+     * @param name The NPC’s name.
+     */
+    public synchronized void npcMet(int index, String name)
+    {
+        if (folded == null) return;
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        room(5 + length).put(NPC_MET).putShort((short) index).putShort((short) length).put(bytes, 0, length);
+        meet(folded, index, name);
+        staged();
+    }
+
+    /**
+     * Records an NPC’s new affection.
+     * @param index The NPC’s place in the list of NPCs met.
+     * @param affection The new affection (-10 to 10).
+     */
+    public synchronized void npcAffection(int index, int affection)
+    {
+        if (folded == null) return;
+        room(4).put(NPC_AFFECTION).putShort((short) index).put((byte) affection);
+        like(folded, index, affection);
+        staged();
+    }
+
+    /**
+     * Makes sure the staging buffer has room for a record (grows it if a commit is slow).
+     */
+    private ByteBuffer room(int bytes)
+    {
+        if (staging.remaining() < bytes)
+        {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(staging.capacity() * 2, staging.position() + bytes));
+            staging.flip();
+            bigger.put(staging);
+            staging = bigger;
+        }
+        return staging;
+    }
+
+    /**
+     * Counts a staged record and wakes the journal thread.
+     */
+    private void staged()
+    {
+        stagedRecords++;
+        records.incrementAndGet();
+        if (stagedRecords == 1) notifyAll(); // The thread only sleeps while nothing is staged
+    }
+
+    /**
+     * Waits for records, gives a burst a moment to gather, then commits it (journal thread).
+     */
+    private void commitLoop()
+    {
+        while (true)
+        {
+            try
+            {
+                synchronized (this)
+                {
+                    while (stagedRecords == 0 && !compactNext) wait();
+                }
+                if (LINGER_MS > 0) Thread.sleep(LINGER_MS); // The rest of the burst joins this commit
+            }
+            catch (InterruptedException e) // Only at exit
+            {
+                return;
+            }
+            commit();
+        }
+    }
+
+    /**
+     * Writes what is staged as one frame and forces it to disk, or rewrites the file as a
+     * snapshot when it has grown past the threshold (journal thread, or the exit hook).
+     */
+    private void commit()
+    {
+        synchronized (io)
+        {
+            byte[] snapshot = null;
+            synchronized (this)
+            {
+                if (folded == null || (stagedRecords == 0 && !compactNext)) return; // Nothing to do
+                int length = staging.position();
+                if (compactNext || channel == null || size + FRAME_HEADER_BYTES + length > COMPACT_BYTES)
+                {
+                    snapshot = SaveGame.encode(folded); // Includes everything staged
+                    compactNext = false;
+                }
+                else
+                {
+                    if (frame.capacity() < FRAME_HEADER_BYTES + length) frame = ByteBuffer.allocateDirect(2 * (FRAME_HEADER_BYTES + length));
+                    frame.clear();
+                    frame.position(FRAME_HEADER_BYTES);
+                    staging.flip();
+                    frame.put(staging);
+                }
+                staging.clear();
+                stagedRecords = 0;
+            }
+
+            long start = System.nanoTime();
+            try
+            {
+                if (snapshot != null) writeSnapshot(snapshot);
+                else writeFrame();
+                commits.record(System.nanoTime() - start);
+                frames.incrementAndGet();
+            }
+            catch (IOException e) // The file is suspect now: the next commit starts over from a snapshot
+            {
+                failures.incrementAndGet();
+                System.err.println("Couldn't write journal " + path + " - " + e.getMessage());
+                synchronized (this) { compactNext = true; }
+            }
+        }
+    }
+
+    /**
+     * Seals the frame being built (length and CRC) and appends it.
+     */
+    private void writeFrame() throws IOException
+    {
+        int length = frame.position() - FRAME_HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = frame.duplicate();
+        payload.position(FRAME_HEADER_BYTES).limit(frame.position());
+        crc.update(payload);
+        frame.putInt(0, length).putInt(4, (int) crc.getValue());
+        frame.flip();
+        while (frame.hasRemaining()) channel.write(frame);
+        channel.force(false); // Contents only; the file’s metadata can catch up later
+        size += FRAME_HEADER_BYTES + length;
+    }
+
+    /**
+     * Replaces the journal with a header and one snapshot frame, written to a temp file first.
+     */
+    private void writeSnapshot(byte[] snapshot) throws IOException
+    {
+        ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + FRAME_HEADER_BYTES + 5 + snapshot.length);
+        file.putInt(MAGIC).putShort(VERSION);
+        int length = 5 + snapshot.length;
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put(SNAPSHOT).putInt(snapshot.length).put(snapshot).flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        file.putInt(length).putInt((int) crc.getValue()).put(payload).flip();
+
+        if (channel != null) channel.close();
+        channel = null;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (file.hasRemaining()) out.write(file);
+            out.force(true); // On disk before it replaces the journal
+        }
+        try
+        {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) // Some file systems can’t; a plain replace is the best left
+        {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        compactions.incrementAndGet();
+    }
+
+    /**
+     * Rebuilds the game from the journal with a single mapped read, replaying frames up to
+     * the first torn or damaged one (the last write before a crash).
+     * @return The game, or null if there is no journal or nothing in it can be used.
+     */
+    public SaveGame.Data recover()
+    {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC) throw new IOException("not a journal");
+            short version = mapped.getShort();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported version " + version);
+            SaveGame.Data data = null;
+            while (mapped.remaining() >= FRAME_HEADER_BYTES)
+            {
+                int length = mapped.getInt();
+                int expected = mapped.getInt();
+                if (length < 0 || length > mapped.remaining()) break; // Torn write at the end
+                ByteBuffer payload = mapped.slice();
+                payload.limit(length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expected) break; // Damaged: nothing after it can be trusted
+                data = replay(payload, data);
+                mapped.position(mapped.position() + length);
+            }
+            return data;
+        }
+        catch (NoSuchFileException e) // No journal yet
+        {
+            return null;
+        }
+        catch (IOException | RuntimeException e) // Not a journal, or damaged in its first frame
+        {
+            System.err.println("Couldn't recover from " + path + " - " + e.getMessage() + ".");
+            return null;
+        }
+    }
+
+    /**
+     * Applies one frame’s records.
+     */
+    private static SaveGame.Data replay(ByteBuffer records, SaveGame.Data data) throws IOException
+    {
+        try
+        {
+            while (records.hasRemaining())
+            {
+                byte type = records.get();
+                if (type == SNAPSHOT)
+                {
+                    byte[] record = new byte[records.getInt()];
+                    records.get(record);
+                    data = SaveGame.decode(ByteBuffer.wrap(record));
+                    continue;
+                }
+                if (data == null) throw new IOException("changes before a snapshot");
+                switch (type)
+                {
+                    case SET:
+                        int field = records.get();
+                        apply(data, field, records.getInt());
+                        break;
+                    case NPC_MET:
+                        int index = records.getShort() & 0xFFFF;
+                        byte[] name = new byte[records.getShort() & 0xFFFF];
+                        records.get(name);
+                        meet(data, index, new String(name, StandardCharsets.UTF_8));
+                        break;
+                    case NPC_AFFECTION:
+                        like(data, records.getShort() & 0xFFFF, records.get());
+                        break;
+                    default:
+                        throw new IOException("unknown record " + type);
+                }
+            }
+            return data;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) // Cut short
+        {
+            throw new IOException("damaged record");
+        }
+    }
+
+    /**
+     * Sets a field on a folded game.
+     */
+    private static void apply(SaveGame.Data data, int field, int value)
+    {
+        if (field == BATTLES) data.battleCount = value;
+        else if (field == CARBY_DEFEATS) data.carbyDefeats = value;
+        else data.player.set(field, value);
+    }
+
+    /**
+     * Adds (or, replayed twice, replaces) an NPC on a folded game.
+     */
+    private static void meet(SaveGame.Data data, int index, String name)
+    {
+        if (index < data.npcs.size()) data.npcs.set(index, new NPCFactory.NPC(name, 0));
+        else data.npcs.add(new NPCFactory.NPC(name, 0));
+    }
+
+    /**
+     * Sets an NPC’s affection on a folded game.
+     */
+    private static void like(SaveGame.Data data, int index, int affection)
+    {
+        data.npcs.set(index, new NPCFactory.NPC(data.npcs.get(index).getName(), affection));
+    }
+
+    // Metrics
+    public LatencyHistogram getCommits() { return commits; }
+    public long getRecords() { return records.get(); }
+    public long getFrames() { return frames.get(); }
+    public long getCompactions() { return compactions.get(); }
+    public long getFailures() { return failures.get(); }
+    public double getRecordsPerFrame() { long n = frames.get(); return n == 0 ? 0 : (double) records.get() / n; }
+}
\ No newline at end of file
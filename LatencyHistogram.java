@@ -0,0 +1,103 @@
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe totals
+import java.util.concurrent.atomic.AtomicLongArray; // Imports thread-safe bucket counts
+
+/**
+ * Fixed-size histogram of durations (frame times, EDT event times, ...).
+ * Durations are bucketed by powers of two with 8 linear steps in each, so every bucket
+ * is within about 12% of the true value, recording is a few atomic adds with no
+ * allocation, and memory stays the same however many samples are recorded.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BITS = 3; // 8 steps per power of two
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB; // Enough for any long
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Samples per bucket
+    private final AtomicLong count = new AtomicLong(); // Samples recorded
+    private final AtomicLong totalMicros = new AtomicLong(); // Sum of all samples
+    private final AtomicLong maxMicros = new AtomicLong(); // Longest sample
+
+    /**
+     * Records one duration (safe from any thread).
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos)
+    {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Gets the duration that a share of the samples are at or below.
+     * @param fraction The share, e.g. 0.99 for the 99th percentile.
+     * @return The duration in milliseconds (the top of its bucket), or 0 with no samples.
+     */
+    public double percentileMillis(double fraction)
+    {
+        long total = count.get();
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+        }
+        return getMaxMillis(); // Samples recorded while we were counting
+    }
+
+    /**
+     * Forgets every sample.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    /**
+     * Sums up the histogram in one line (e.g., "n=600 p50=1.12ms p99=3.84ms max=6.02ms").
+     * @return The summary.
+     */
+    public String summary()
+    {
+        return String.format("n=%d p50=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), percentileMillis(0.50), percentileMillis(0.99), getMaxMillis());
+    }
+
+    /**
+     * Finds the bucket for a duration.
+     */
+    private static int bucketOf(long micros)
+    {
+        if (micros < SUB) return (int) micros; // Exact below 8 microseconds
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int step = (int) (micros >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return (exponent - SUB_BITS + 1) * SUB + step;
+    }
+
+    /**
+     * Gets the first duration past a bucket.
+     */
+    private static long upperBound(int bucket)
+    {
+        if (bucket < SUB) return bucket + 1;
+        int exponent = bucket / SUB + SUB_BITS - 1;
+        long step = bucket % SUB;
+        return (SUB + step + 1) << (exponent - SUB_BITS);
+    }
+
+    // Getters
+    public long getCount() { return count.get(); }
+    public double getMaxMillis() { return maxMicros.get() / 1000.0; }
+    public double getMeanMillis() { long n = count.get(); return n == 0 ? 0 : totalMicros.get() / 1000.0 / n; }
+}
\ No newline at end of file
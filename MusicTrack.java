@@ -0,0 +1,188 @@
+import javax.sound.sampled.AudioInputStream; // Imports the decoded audio stream
+import java.util.List; // Imports List interface
+import java.util.concurrent.CopyOnWriteArrayList; // Imports a list that’s safe to walk while tracks are added
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.concurrent.locks.LockSupport; // Imports parking for the streamer thread
+
+/**
+ * A looping music track streamed from disk for the AudioMixer.
+ * Instead of loading the whole file into a Clip, a shared streamer thread decodes a
+ * little at a time into a half-second ring buffer and the mixer reads from the other end.
+ * A track that is faded out isn’t read, so its buffer stays full and its decoder stays
+ * open at the same spot: fading it back in is instant, with no file read on the transition.
+ */
+public class MusicTrack implements AudioMixer.Stream
+{
+    private static final int RING_SAMPLES = 44100; // Half a second of stereo samples
+    private static final int CHUNK_BYTES = 16384; // Most bytes decoded per read
+    private static final long IDLE_NANOS = 50_000_000L; // Longest the streamer sleeps between checks
+
+    private static final List<MusicTrack> tracks = new CopyOnWriteArrayList<>(); // Every track the streamer fills
+    private static final Thread streamer = startStreamer(); // Decodes music for every track
+
+    private final String musicFile; // Path to the music file
+    private final short[] ring = new short[RING_SAMPLES]; // Decoded samples waiting for the mixer
+    private volatile long written; // Samples written so far (streamer thread only)
+    private volatile long read; // Samples read so far (mixer thread only)
+    private final AtomicLong underruns = new AtomicLong(); // Blocks the mixer asked for before they were ready
+    private volatile boolean failed; // Whether the file couldn’t be opened
+
+    // Decoder state (streamer thread only)
+    private AudioInputStream stream; // Open 16-bit PCM stream
+    private final byte[] chunk = new byte[CHUNK_BYTES]; // Bytes from the last read
+    private int channels; // Channels in the file
+    private long framesSinceOpen; // Frames read since the file was last opened (0 at the end means it has no audio)
+    private double step; // File frames per mixer frame
+    private double at; // Position of the next output frame, relative to the previous chunk’s last frame
+    private final short[] previous = new short[2]; // Previous chunk’s last frame (left, right)
+
+    /**
+     * Constructor: Creates a track and starts filling its buffer in the background.
+     * @param musicFile Path to the music file (e.g., "src/resources/normal_music.wav").
+     */
+    public MusicTrack(String musicFile)
+    {
+        this.musicFile = musicFile;
+        tracks.add(this);
+        LockSupport.unpark(streamer); // Fills the buffer now instead of at the next check
+    }
+
+    /**
+     * Copies buffered samples into the mixer (runs on the mixer thread).
+     * Missing samples are filled with silence and counted as an underrun.
+     * @param buffer Where to put the samples.
+     * @param count How many samples the mixer wants.
+     */
+    @Override
+    public void read(short[] buffer, int count)
+    {
+        long start = read;
+        int available = (int) Math.min(count, written - start);
+        for (int i = 0; i < available; i++)
+        {
+            buffer[i] = ring[(int) ((start + i) % RING_SAMPLES)];
+        }
+        for (int i = available; i < count; i++)
+        {
+            buffer[i] = 0; // Silence until the streamer catches up
+        }
+        read = start + available;
+        if (available < count && !failed) underruns.incrementAndGet();
+        if (written - read < RING_SAMPLES / 2) LockSupport.unpark(streamer); // Running low: wake the streamer
+    }
+
+    /**
+     * Tops up the ring buffer (runs on the streamer thread).
+     */
+    private void fill()
+    {
+        try
+        {
+            while (true)
+            {
+                int free = RING_SAMPLES - (int) (written - read);
+                if (stream == null) open();
+                int frameBytes = channels * 2;
+                int frames = Math.min(CHUNK_BYTES / frameBytes, (int) ((free / 2 - 2) * step)); // Only what fits
+                if (frames <= 0) return; // Buffer is full
+                int bytes = stream.readNBytes(chunk, 0, frames * frameBytes);
+                if (bytes < frameBytes) // End of file: loop back to the start
+                {
+                    stream.close();
+                    stream = null;
+                    if (framesSinceOpen == 0) throw new IllegalStateException("no audio frames"); // Looping would spin forever
+                    continue;
+                }
+                framesSinceOpen += bytes / frameBytes;
+                resample(bytes / frameBytes);
+            }
+        }
+        catch (Exception e) // Catches errors (e.g., file not found)
+        {
+            System.err.println("Error playing music: " + musicFile + " - " + e.getMessage()); // Prints error
+            failed = true;
+            tracks.remove(this);
+        }
+    }
+
+    /**
+     * Opens (or reopens, when looping) the file as 16-bit PCM.
+     */
+    private void open() throws Exception
+    {
+        stream = SoundBank.openPcm(musicFile);
+        framesSinceOpen = 0;
+        channels = stream.getFormat().getChannels();
+        step = stream.getFormat().getSampleRate() / AudioMixer.FORMAT.getSampleRate();
+    }
+
+    /**
+     * Converts the last chunk to the mixer’s format and writes it to the ring.
+     * Linear interpolation carries across chunks (and loops), so there are no seams.
+     * @param frames Frames in the chunk.
+     */
+    private void resample(int frames)
+    {
+        long position = written;
+        while (at < frames) // Frame 0 is the previous chunk’s last frame, 1..frames are this chunk
+        {
+            int frame = (int) at;
+            double t = at - frame;
+            for (int side = 0; side < 2; side++)
+            {
+                int a = frameSample(frame, side);
+                int b = frameSample(frame + 1, side);
+                ring[(int) (position % RING_SAMPLES)] = (short) Math.round(a + (b - a) * t);
+                position++;
+            }
+            at += step;
+        }
+        at -= frames;
+        previous[0] = (short) frameSample(frames, 0);
+        previous[1] = (short) frameSample(frames, 1);
+        written = position; // Publishes the new samples to the mixer
+    }
+
+    /**
+     * Reads one side of a frame (0 is the previous chunk’s last frame).
+     */
+    private int frameSample(int frame, int side)
+    {
+        if (frame == 0) return previous[side];
+        int index = ((frame - 1) * channels + Math.min(side, channels - 1)) * 2; // Mono feeds both sides
+        return (short) ((chunk[index] & 0xFF) | (chunk[index + 1] << 8));
+    }
+
+    /**
+     * Gets how many times the mixer caught this track with an empty buffer.
+     * @return The underrun count.
+     */
+    public long getUnderruns() { return underruns.get(); }
+
+    /**
+     * Gets the path this track plays.
+     * @return The music file.
+     */
+    public String getMusicFile() { return musicFile; }
+
+    /**
+     * Starts the thread that keeps every track’s buffer full.
+     */
+    private static Thread startStreamer()
+    {
+        Thread thread = new Thread(() ->
+        {
+            while (true)
+            {
+                for (MusicTrack track : tracks)
+                {
+                    track.fill();
+                }
+                LockSupport.parkNanos(IDLE_NANOS); // Woken early by a track that runs low
+            }
+        }, "music-streamer");
+        thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+        thread.start();
+        return thread;
+    }
+}
\ No newline at end of file
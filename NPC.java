@@ -1,4 +1,4 @@
-import java.util.Random;
+import java.util.random.RandomGenerator; // Imports the common interface for random generators
 
 /**
  * Non-Player Character (NPC) class for "Cooking with Carby."
@@ -55,8 +55,6 @@ public class NPC
  */
 class NPCFactory 
 {
-    private static Random rand = new Random(); // Randomizer for selections
-    
     // Possible name components for generated NPCs
     private static String[] names = { "Pip Hamstein", "Liza Sharuum", "Ghislain Worcestershire",  "Aspar Gios" };
     
@@ -72,7 +70,17 @@ class NPCFactory
      */
     public static NPC createNPC() 
     {
-        String name = names[rand.nextInt(names.length)]; // Random name selection
+        return createNPC(GameRandom.session().npcs());
+    }
+
+    /**
+     * Creates a new randomized NPC instance from a given generator
+     * @param random The generator to pick with (e.g., a GameController’s npcs())
+     * @return A new NPC with random name and neutral affection
+     */
+    public static NPC createNPC(RandomGenerator random) 
+    {
+        String name = names[random.nextInt(names.length)]; // Random name selection
         return new NPC(name);
     }
 
@@ -95,6 +103,17 @@ class NPCFactory
             this.affectionLevel = 0; // Neutral start
         }
 
+        /**
+         * Recreates a saved NPC with the affection the player had built up
+         * @param name The display name
+         * @param affectionLevel The saved affection (-10 to 10)
+         */
+        NPC(String name, int affectionLevel) 
+        {
+            this.name = name;
+            this.affectionLevel = affectionLevel;
+        }
+
         /**
          * Modifies affection with upper/lower bounds (-10 to 10)
          * @param choice Interaction value (positive/negative)
@@ -111,11 +130,21 @@ class NPCFactory
          * @return Random buff (high affection), debuff (low affection), or neutral
          */
         public String getEffect() 
+        {
+            return getEffect(GameRandom.session().npcs());
+        }
+
+        /**
+         * Gets a random effect based on current affection level, picked with a given generator
+         * @param random The generator to pick with
+         * @return Random buff (high affection), debuff (low affection), or neutral
+         */
+        public String getEffect(RandomGenerator random) 
         {
             if (affectionLevel >= 7) 
-                return buffs[rand.nextInt(buffs.length)]; // Random buff
+                return buffs[random.nextInt(buffs.length)]; // Random buff
             else if (affectionLevel <= -7) 
-                return debuffs[rand.nextInt(debuffs.length)]; // Random debuff
+                return debuffs[random.nextInt(debuffs.length)]; // Random debuff
             return "No Effect"; // Neutral
         }
 
@@ -0,0 +1,283 @@
+import javax.swing.JComponent; // Imports the base for the Swing particle layer
+import java.awt.*; // Imports colors and drawing tools
+import java.util.SplittableRandom; // Imports the spread generator (cosmetic only, never the battle’s generator)
+
+/**
+ * Particle effects for attacks and critical hits (flames for Flambé, frost, sparks, ...).
+ * Particles live in preallocated parallel arrays (one array per field, indexed by particle),
+ * sized once by a budget. Live particles are packed at the front; a dead one is replaced by
+ * the last live one, so emitting, updating and drawing never allocate and never trigger GC.
+ * When the budget is full, new particles are skipped and counted instead of growing the arrays.
+ * Colors are built once per preset at every fade level, so drawing doesn’t create Colors either.
+ * One thread at a time owns the system (the EDT through Layer, or the active renderer);
+ * emit can be called from the EDT either way.
+ */
+public class ParticleSystem
+{
+    static final int DEFAULT_BUDGET = Integer.getInteger("carby.particleBudget", 512); // e.g. -Dcarby.particleBudget=128 on slow machines
+    private static final int FADE_LEVELS = 16; // Alpha steps a particle fades through
+
+    // Particle fields, one entry per particle (only the first "live" are in use)
+    private final float[] x, y; // Position (pixels)
+    private final float[] vx, vy; // Velocity (pixels per second)
+    private final float[] gravity; // Downward pull (pixels per second squared)
+    private final float[] age, life; // Seconds lived, and seconds to live
+    private final float[] size; // Width and height (pixels)
+    private final byte[] preset; // Index into Preset.ALL
+    private final byte[] color; // Index into the preset’s colors
+
+    private final int budget; // Most particles alive at once
+    private int live; // Particles alive
+    private final SplittableRandom random = new SplittableRandom(); // Spread of speeds, angles and lifetimes
+
+    // Metrics
+    private long emitted; // Particles started
+    private long dropped; // Particles skipped because the budget was full
+
+    /**
+     * Constructor: Preallocates room for a fixed number of particles.
+     * @param budget Most particles alive at once.
+     */
+    public ParticleSystem(int budget)
+    {
+        this.budget = budget;
+        x = new float[budget];
+        y = new float[budget];
+        vx = new float[budget];
+        vy = new float[budget];
+        gravity = new float[budget];
+        age = new float[budget];
+        life = new float[budget];
+        size = new float[budget];
+        preset = new byte[budget];
+        color = new byte[budget];
+    }
+
+    /**
+     * Starts a burst of particles.
+     * @param effect The preset (see Preset).
+     * @param centerX Where the burst starts.
+     * @param centerY Where the burst starts.
+     */
+    public synchronized void emit(Preset effect, float centerX, float centerY)
+    {
+        for (int n = 0; n < effect.count; n++)
+        {
+            if (live == budget) // Full: skip the rest of the burst instead of allocating
+            {
+                dropped += effect.count - n;
+                return;
+            }
+            int i = live++;
+            double angle = effect.direction + (random.nextDouble() - 0.5) * effect.spread;
+            double speed = effect.minSpeed + random.nextDouble() * (effect.maxSpeed - effect.minSpeed);
+            x[i] = centerX + (float) ((random.nextDouble() - 0.5) * effect.radius * 2);
+            y[i] = centerY + (float) ((random.nextDouble() - 0.5) * effect.radius * 2);
+            vx[i] = (float) (Math.cos(angle) * speed);
+            vy[i] = (float) (-Math.sin(angle) * speed); // Screen y grows downward
+            gravity[i] = effect.gravity;
+            age[i] = 0;
+            life[i] = (float) (effect.minLife + random.nextDouble() * (effect.maxLife - effect.minLife));
+            size[i] = (float) (effect.minSize + random.nextDouble() * (effect.maxSize - effect.minSize));
+            preset[i] = (byte) effect.index;
+            color[i] = (byte) random.nextInt(effect.shades.length);
+            emitted++;
+        }
+    }
+
+    /**
+     * Moves every particle forward and recycles the ones that have died.
+     * @param seconds Time since the last update.
+     */
+    public synchronized void update(float seconds)
+    {
+        int i = 0;
+        while (i < live)
+        {
+            age[i] += seconds;
+            if (age[i] >= life[i]) // Dead: move the last live particle into this slot
+            {
+                copy(--live, i);
+                continue; // Updates the moved particle in this same pass
+            }
+            vy[i] += gravity[i] * seconds;
+            x[i] += vx[i] * seconds;
+            y[i] += vy[i] * seconds;
+            i++;
+        }
+    }
+
+    /**
+     * Draws every live particle, fading out over its life.
+     * @param g Where to draw.
+     */
+    public synchronized void draw(Graphics g)
+    {
+        for (int i = 0; i < live; i++)
+        {
+            int fade = (int) ((1f - age[i] / life[i]) * (FADE_LEVELS - 1));
+            g.setColor(Preset.ALL[preset[i]].shades[color[i]][Math.max(0, fade)]);
+            int s = Math.max(1, (int) size[i]);
+            g.fillRect((int) x[i] - s / 2, (int) y[i] - s / 2, s, s);
+        }
+    }
+
+    /**
+     * Removes every particle (e.g., when a battle ends).
+     */
+    public synchronized void clear()
+    {
+        live = 0;
+    }
+
+    /**
+     * Copies one particle’s fields over another’s.
+     */
+    private void copy(int from, int to)
+    {
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        gravity[to] = gravity[from];
+        age[to] = age[from];
+        life[to] = life[from];
+        size[to] = size[from];
+        preset[to] = preset[from];
+        color[to] = color[from];
+    }
+
+    // Metrics
+    public synchronized int getLive() { return live; }
+    public synchronized long getEmitted() { return emitted; }
+    public synchronized long getDropped() { return dropped; }
+    public int getBudget() { return budget; }
+
+    /**
+     * A kind of burst: how many particles, how they fly, how long they last and their colors.
+     */
+    static class Preset
+    {
+        // Presets (angles in radians: 0 is right, PI/2 is up)
+        static final Preset HIT = new Preset(0, 14, Math.PI / 2, 2 * Math.PI, 60, 160, 10, 0.25, 0.5, 2, 4, 200,
+                0xFFF5DE, 0xFFD27F); // Small sparks for any attack without its own effect
+        static final Preset CRITICAL = new Preset(1, 60, Math.PI / 2, 2 * Math.PI, 150, 380, 12, 0.4, 0.9, 3, 6, 300,
+                0xFFFFFF, 0xFFE14D, 0xFFA500); // Bright starburst for critical hits
+        static final Preset FLAME = new Preset(2, 48, Math.PI / 2, Math.PI / 2, 60, 180, 30, 0.5, 1.0, 4, 8, -120,
+                0xFFD700, 0xFF8C00, 0xFF4500, 0xB22222); // Rising flames (Flambé, Flambé Blast, Fiery Flambé)
+        static final Preset SEAR = new Preset(3, 36, Math.PI / 2, Math.PI / 3, 40, 120, 25, 0.6, 1.2, 3, 6, -60,
+                0xFF6A00, 0x8B4513, 0x696969); // Embers and smoke (Sear, Grill, Smoke)
+        static final Preset FROST = new Preset(4, 40, Math.PI / 2, 2 * Math.PI, 40, 140, 20, 0.6, 1.1, 2, 5, 60,
+                0xFFFFFF, 0xADD8E6, 0x87CEEB); // Drifting ice crystals (Frost)
+        static final Preset[] ALL = { HIT, CRITICAL, FLAME, SEAR, FROST }; // Indexed by Preset.index
+
+        final int index; // Position in ALL
+        final int count; // Particles per burst
+        final double direction, spread; // Average angle and how far either side particles go
+        final double minSpeed, maxSpeed; // Pixels per second
+        final double radius; // How far from the center particles start
+        final double minLife, maxLife; // Seconds
+        final double minSize, maxSize; // Pixels
+        final float gravity; // Downward pull (negative rises)
+        final Color[][] shades; // Each color at every fade level, built once
+
+        Preset(int index, int count, double direction, double spread, double minSpeed, double maxSpeed, double radius,
+               double minLife, double maxLife, double minSize, double maxSize, float gravity, int... colors)
+        {
+            this.index = index;
+            this.count = count;
+            this.direction = direction;
+            this.spread = spread;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+            this.radius = radius;
+            this.minLife = minLife;
+            this.maxLife = maxLife;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.gravity = gravity;
+            this.shades = new Color[colors.length][FADE_LEVELS];
+            for (int c = 0; c < colors.length; c++)
+            {
+                for (int level = 0; level < FADE_LEVELS; level++)
+                {
+                    int alpha = 255 * (level + 1) / FADE_LEVELS;
+                    shades[c][level] = new Color(alpha << 24 | colors[c], true);
+                }
+            }
+        }
+
+        /**
+         * Picks the effect for an attack name (player or enemy attack).
+         * @param attackName The attack (e.g., "Flambé Blast", "Frost").
+         * @return Its preset (sparks if it has no special effect).
+         */
+        static Preset forAttack(String attackName)
+        {
+            if (attackName == null) return HIT;
+            if (attackName.contains("Flambé")) return FLAME;
+            switch (attackName)
+            {
+                case "Sear":
+                case "Grill":
+                case "Smoke":
+                    return SEAR;
+                case "Frost":
+                    return FROST;
+                default:
+                    return HIT;
+            }
+        }
+    }
+
+    /**
+     * Draws a particle system with Swing, updated by the AnimationClock.
+     * Repaints only while particles are alive (and once more to clear the last ones).
+     */
+    static class Layer extends JComponent implements AnimationClock.Animated
+    {
+        private final ParticleSystem particles; // The particles to draw
+        private long last = -1; // Clock time of the last update
+        private boolean wasEmpty = true; // Whether the last update ended with no particles
+
+        /**
+         * Constructor: Creates a layer for a particle system.
+         * @param particles The particles to draw.
+         */
+        Layer(ParticleSystem particles)
+        {
+            this.particles = particles;
+        }
+
+        @Override
+        public void advance(long now)
+        {
+            float seconds = last < 0 ? 0 : Math.min(now - last, 250) / 1000f; // Caps the step after a stall
+            last = now;
+            particles.update(seconds);
+            boolean empty = particles.getLive() == 0;
+            if (!(empty && wasEmpty) && isShowing()) repaint();
+            wasEmpty = empty;
+        }
+
+        @Override
+        public void addNotify()
+        {
+            super.addNotify();
+            AnimationClock.shared().register(this);
+        }
+
+        @Override
+        public void removeNotify()
+        {
+            AnimationClock.shared().unregister(this);
+            super.removeNotify();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g)
+        {
+            particles.draw(g);
+        }
+    }
+}
\ No newline at end of file
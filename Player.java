@@ -10,6 +10,12 @@ public class Player
     private int precision, stamina, creativity, flavorSense, speed, hp, maxHP; // Player’s stats
     private int level, experience; // Player’s level and experience points (XP)
     private String classType; // Player’s class (e.g., "Sous Chef", "Pastry Artist")
+    private Journal journal; // Records every change for crash recovery (null when not journaled, e.g., simulations)
+
+    // Field codes, used by the Journal to record a change as "field = value"
+    static final int LEVEL = 0, EXPERIENCE = 1, PRECISION = 2, STAMINA = 3, CREATIVITY = 4;
+    static final int FLAVOR_SENSE = 5, SPEED = 6, HP = 7, MAX_HP = 8;
+    static final int FIELD_COUNT = 9;
 
     /**
      * Constructor: Creates a new player with a name and class type.
@@ -28,6 +34,31 @@ public class Player
         this.hp = maxHP; // Sets current HP to max HP
     }
 
+    /**
+     * Constructor: Recreates a saved player exactly as it was (used by SaveGame).
+     * @param name The player’s name.
+     * @param classType The player’s class.
+     * @param level The player’s level.
+     * @param experience XP toward the next level.
+     * @param stats Precision, stamina, creativity, flavor sense and speed, in that order.
+     * @param hp Current HP.
+     * @param maxHP Max HP.
+     */
+    Player(String name, String classType, int level, int experience, int[] stats, int hp, int maxHP) 
+    {
+        this.name = name;
+        this.classType = classType;
+        this.level = level;
+        this.experience = experience;
+        this.precision = stats[0];
+        this.stamina = stats[1];
+        this.creativity = stats[2];
+        this.flavorSense = stats[3];
+        this.speed = stats[4];
+        this.maxHP = maxHP;
+        this.hp = hp;
+    }
+
     /**
      * Sets initial stats based on the player’s class type.
      * Each class has unique starting stats for balance.
@@ -84,6 +115,15 @@ public class Player
             this.maxHP = stamina * 10; // Recalculates max HP based on new stamina
             this.hp = maxHP; // Fully heals player to new max HP
             experience = 0; // Resets XP to 0 after leveling up
+            record(LEVEL, level);
+            record(PRECISION, precision);
+            record(STAMINA, stamina);
+            record(CREATIVITY, creativity);
+            record(FLAVOR_SENSE, flavorSense);
+            record(SPEED, speed);
+            record(MAX_HP, maxHP);
+            record(HP, hp);
+            record(EXPERIENCE, experience);
         }
     }
 
@@ -94,6 +134,7 @@ public class Player
     public void gainExperience(int exp) 
     {
         this.experience += exp; // Adds XP to current experience
+        record(EXPERIENCE, experience);
         if (this.experience >= getExpToLevel() && level < 10) 
         { // Checks if XP meets level-up requirement and level < 10
             levelUp(); // Calls levelUp if conditions are met
@@ -108,6 +149,7 @@ public class Player
     {
         hp -= damage; // Subtracts damage from current HP
         if (hp < 0) hp = 0; // Ensures HP doesn’t go below 0
+        record(HP, hp);
     }
 
     /**
@@ -118,6 +160,46 @@ public class Player
     {
         hp += amount; // Adds amount to current HP
         if (hp > maxHP) hp = maxHP; // Caps HP at max HP
+        record(HP, hp);
+    }
+
+    /**
+     * Starts (or stops, with null) recording every change to a journal.
+     * @param journal The journal to record to.
+     */
+    void setJournal(Journal journal) 
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Records a change to the journal, if there is one.
+     */
+    private void record(int field, int value) 
+    {
+        if (journal != null) journal.set(field, value);
+    }
+
+    /**
+     * Sets a field by its code (used by the Journal to replay changes, so nothing is recorded).
+     * @param field The field code (e.g., HP).
+     * @param value The new value.
+     */
+    void set(int field, int value) 
+    {
+        switch (field) 
+        {
+            case LEVEL: level = value; break;
+            case EXPERIENCE: experience = value; break;
+            case PRECISION: precision = value; break;
+            case STAMINA: stamina = value; break;
+            case CREATIVITY: creativity = value; break;
+            case FLAVOR_SENSE: flavorSense = value; break;
+            case SPEED: speed = value; break;
+            case HP: hp = value; break;
+            case MAX_HP: maxHP = value; break;
+            default: throw new IllegalArgumentException("Unknown field " + field);
+        }
     }
 
     public int getCritChance() { return precision * 2; }
@@ -139,9 +221,9 @@ public class Player
     public boolean isDefeated() { return hp <= 0; }
 
     // Setters for buffs
-    public void setPrecision(int precision) { this.precision = precision; }
-    public void setStamina(int stamina) { this.stamina = stamina; this.maxHP = stamina * 10; }
-    public void setCreativity(int creativity) { this.creativity = creativity; }
-    public void setFlavorSense(int flavorSense) { this.flavorSense = flavorSense; }
-    public void setSpeed(int speed) { this.speed = speed; }
+    public void setPrecision(int precision) { this.precision = precision; record(PRECISION, precision); }
+    public void setStamina(int stamina) { this.stamina = stamina; this.maxHP = stamina * 10; record(STAMINA, stamina); record(MAX_HP, maxHP); }
+    public void setCreativity(int creativity) { this.creativity = creativity; record(CREATIVITY, creativity); }
+    public void setFlavorSense(int flavorSense) { this.flavorSense = flavorSense; record(FLAVOR_SENSE, flavorSense); }
+    public void setSpeed(int speed) { this.speed = speed; record(SPEED, speed); }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+import java.io.IOException; // Imports the error thrown by file operations
+import java.nio.ByteBuffer; // Imports the buffer a battle is recorded into
+import java.nio.MappedByteBuffer; // Imports the memory-mapped view of the replay file
+import java.nio.channels.FileChannel; // Imports direct file access (mapping)
+import java.nio.file.Path; // Imports file paths
+import java.nio.file.Paths; // Imports path creation
+import java.nio.file.StandardOpenOption; // Imports the file open options
+
+/**
+ * A file of recorded battles, appended to and read through a memory mapping.
+ * Each battle is stored as fixed-width binary: a 41-byte header (seed, the player’s stats,
+ * enemy type and level, outcome, state hashes) followed by one 9-byte record per turn (attack 1-4,
+ * critical, counterattack and dodge flags, damage dealt and taken, state hash). That is enough to
+ * rebuild the battle with BattleEngine and check it still plays out the same, turn by turn:
+ * the hashes are BattleEngine’s rolling state hash (HP, stats and RNG position) at the start,
+ * after each turn and after experience was awarded.
+ * Battles are found by hopping from header to header (no parsing), so the ReplayViewer
+ * can scrub through thousands of them and the ReplayVerifier can re-run them all at full speed.
+ * The file header counts the battles and marks where the last complete one ends; a battle
+ * only counts once it is fully written. Layout (big-endian):
+ *   file: int magic "CRRP", short version, int battles, long end
+ *   battle: long seed, byte class, byte enemy type, short enemy level, short level,
+ *           short precision, stamina, creativity, flavor sense, speed, max HP,
+ *           short turns, byte outcome, int experience, int start hash, int end hash
+ *   turn: byte flags (attack - 1 | critical 4 | counterattack 8 | dodged 16), short damage, short damage taken,
+ *         int state hash
+ * Version 1 files (without experience or hashes) can still be read, but not appended to.
+ * The game appends to -Dcarby.replays (default carby.replays).
+ */
+public class ReplayFile
+{
+    static final int MAGIC = 0x43525250; // "CRRP"
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 18; // File header
+    static final int BATTLE_BYTES = 41; // Battle header
+    static final int TURN_BYTES = 9; // One turn
+    static final int V1_BATTLE_BYTES = 29, V1_TURN_BYTES = 5; // Version 1 (no experience or hashes)
+    private static final int CHUNK = 1 << 20; // The mapping grows 1 MB at a time
+
+    // Outcomes
+    static final byte UNFINISHED = 0, WON = 1, LOST = 2;
+
+    // Turn flags
+    private static final int ATTACK_MASK = 3, CRITICAL = 4, COUNTERATTACK = 8, DODGED = 16;
+
+    private static ReplayFile shared; // The game’s replay file (opened on first use)
+    private static boolean sharedFailed; // Whether opening it failed (not retried)
+
+    private final FileChannel channel; // The open file
+    private final boolean writable; // Opened for appending
+    private short version = VERSION; // The file’s format
+    private MappedByteBuffer map; // The mapped file (remapped larger as it grows)
+    private int battles; // Complete battles in the file
+    private long end; // Where the last complete battle ends
+    private int[] offsets; // Where each battle starts (reader only)
+
+    /**
+     * Constructor: Opens (and for appending, creates) a replay file.
+     * @param path The file.
+     * @param writable True to append battles, false to read them.
+     * @throws IOException If it can’t be opened or isn’t a replay file.
+     */
+    public ReplayFile(Path path, boolean writable) throws IOException
+    {
+        this.writable = writable;
+        channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size == 0 && writable) // New file
+        {
+            mapAtLeast(HEADER_BYTES);
+            map.putInt(0, MAGIC).putShort(4, VERSION);
+            publish(0, HEADER_BYTES);
+        }
+        else
+        {
+            map = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < HEADER_BYTES || map.getInt(0) != MAGIC) throw new IOException(path + " is not a replay file");
+            version = map.getShort(4);
+            if (version < 1 || version > VERSION) throw new IOException(path + " has unsupported version " + version);
+            if (writable && version != VERSION) throw new IOException(path + " is an older version (move it aside to record new battles)");
+            battles = map.getInt(6);
+            end = map.getLong(10);
+            if (end > size || end < HEADER_BYTES) throw new IOException(path + " is damaged");
+        }
+        if (!writable) index();
+    }
+
+    /**
+     * Gets the game’s replay file, opening it on first use.
+     * @return The file, or null if it can’t be opened (battles just aren’t recorded).
+     */
+    public static synchronized ReplayFile shared()
+    {
+        if (shared == null && !sharedFailed)
+        {
+            Path path = Paths.get(System.getProperty("carby.replays", "carby.replays"));
+            try
+            {
+                shared = new ReplayFile(path, true);
+            }
+            catch (IOException e) // Read-only folder, someone else’s file, ...
+            {
+                sharedFailed = true;
+                System.err.println("Couldn't open replays " + path + " - " + e.getMessage() + ". Battles won't be recorded.");
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Appends a recorded battle.
+     * @param recorder The battle (finished or not).
+     */
+    public synchronized void append(Recorder recorder)
+    {
+        if (!writable) throw new IllegalStateException("Opened for reading");
+        ByteBuffer battle = recorder.buffer.duplicate();
+        battle.flip();
+        int length = battle.remaining();
+        try
+        {
+            mapAtLeast(end + length);
+        }
+        catch (IOException e) // Disk full: skip this battle rather than disturb the game
+        {
+            System.err.println("Couldn't record a battle - " + e.getMessage());
+            return;
+        }
+        map.position((int) end);
+        map.put(battle);
+        publish(battles + 1, end + length); // The battle counts only now that it is all there
+    }
+
+    /**
+     * Maps the file with room for at least some number of bytes, growing it a chunk at a time.
+     */
+    private void mapAtLeast(long bytes) throws IOException
+    {
+        if (map != null && map.capacity() >= bytes) return;
+        long size = (bytes + CHUNK - 1) / CHUNK * CHUNK;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // Extends the file
+    }
+
+    /**
+     * Updates the file header’s count and end.
+     */
+    private void publish(int battles, long end)
+    {
+        this.battles = battles;
+        this.end = end;
+        map.putLong(10, end).putInt(6, battles);
+    }
+
+    /**
+     * Finds where every battle starts by hopping over headers and turns.
+     */
+    private void index()
+    {
+        offsets = new int[battles];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < battles; i++)
+        {
+            offsets[i] = offset;
+            offset += battleBytes() + (map.getShort(offset + 26) & 0xFFFF) * turnBytes();
+        }
+    }
+
+    /**
+     * Gets a battle (reader only). The returned view reads straight from the mapping and is
+     * safe to use from many threads at once.
+     * @param index The battle (0 to size() - 1).
+     * @return The battle.
+     */
+    public Battle get(int index)
+    {
+        return new Battle(map, offsets[index], version);
+    }
+
+    private int battleBytes() { return version == 1 ? V1_BATTLE_BYTES : BATTLE_BYTES; }
+    private int turnBytes() { return version == 1 ? V1_TURN_BYTES : TURN_BYTES; }
+
+    /**
+     * Closes the file.
+     */
+    public void close() throws IOException
+    {
+        if (writable) map.force();
+        channel.close();
+    }
+
+    // Getters
+    public synchronized int size() { return battles; }
+    public synchronized long getBytes() { return end; }
+    public short getVersion() { return version; }
+
+    /**
+     * Records one battle as it is fought (owned by the thread that resolves its turns).
+     * Can be reused from battle to battle, so recording doesn’t allocate.
+     */
+    static class Recorder
+    {
+        private ByteBuffer buffer = ByteBuffer.allocate(BATTLE_BYTES + 64 * TURN_BYTES); // Grows for long battles
+        private int turns; // Turns recorded
+
+        /**
+         * Starts recording a battle (after the player was healed).
+         * @param engine The battle’s engine (for its seed and starting state hash).
+         * @param player The player, whose current stats are recorded.
+         * @param enemy The enemy.
+         */
+        void begin(BattleEngine engine, Player player, Enemy enemy)
+        {
+            buffer.clear();
+            turns = 0;
+            buffer.putLong(engine.getSeed());
+            buffer.put((byte) classCode(player.getClassType()));
+            buffer.put((byte) EnemyFactory.typeOf(enemy));
+            buffer.putShort((short) player.getLevel()); // Enemies are scaled to the player’s level when created
+            buffer.putShort((short) player.getLevel());
+            buffer.putShort((short) player.getPrecision()).putShort((short) player.getStamina());
+            buffer.putShort((short) player.getCreativity()).putShort((short) player.getFlavorSense());
+            buffer.putShort((short) player.getSpeed()).putShort((short) player.getMaxHP());
+            buffer.putShort((short) 0); // Turns, filled in as they happen
+            buffer.put(UNFINISHED);
+            buffer.putInt(player.getExperience());
+            buffer.putInt((int) engine.getStateHash());
+            buffer.putInt(0); // End hash, filled in by finish
+        }
+
+        /**
+         * Records a turn.
+         * @param result The turn, from BattleEngine.resolveTurn.
+         */
+        void turn(BattleEngine.TurnResult result)
+        {
+            if (buffer.remaining() < TURN_BYTES)
+            {
+                ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+            int flags = (result.getAttackType() - 1) & ATTACK_MASK;
+            if (result.isCritical()) flags |= CRITICAL;
+            if (result.isCounterattack()) flags |= COUNTERATTACK;
+            if (result.isDodged()) flags |= DODGED;
+            buffer.put((byte) flags).putShort((short) result.getDamage()).putShort((short) result.getEnemyDamage());
+            buffer.putInt((int) result.getStateHash());
+            buffer.putShort(26, (short) ++turns);
+        }
+
+        /**
+         * Records how the battle ended (after any experience was awarded).
+         * @param engine The battle’s engine.
+         */
+        void finish(BattleEngine engine)
+        {
+            buffer.put(28, engine.isEnemyDefeated() ? WON : engine.isPlayerDefeated() ? LOST : UNFINISHED);
+            buffer.putInt(37, (int) engine.getStateHash());
+        }
+
+        /**
+         * Gets the code for a class (its place in BalanceSimulator.CLASS_TYPES).
+         */
+        private static int classCode(String classType)
+        {
+            for (int i = 0; i < BalanceSimulator.CLASS_TYPES.length; i++)
+            {
+                if (BalanceSimulator.CLASS_TYPES[i].equals(classType)) return i;
+            }
+            return BalanceSimulator.CLASS_TYPES.length; // Any other class plays with the default attacks
+        }
+    }
+
+    /**
+     * A recorded battle, read straight from the mapped file.
+     */
+    static class Battle
+    {
+        private final ByteBuffer map; // The mapped file (absolute reads only, so views can share it)
+        private final int offset; // Where the battle starts
+        private final boolean hashed; // Whether it has experience and state hashes (version 2 on)
+        private final int battleBytes, turnBytes; // Record sizes in its version
+
+        Battle(ByteBuffer map, int offset, short version)
+        {
+            this.map = map;
+            this.offset = offset;
+            this.hashed = version >= 2;
+            this.battleBytes = hashed ? BATTLE_BYTES : V1_BATTLE_BYTES;
+            this.turnBytes = hashed ? TURN_BYTES : V1_TURN_BYTES;
+        }
+
+        public long getSeed() { return map.getLong(offset); }
+        public String getClassType() { int code = map.get(offset + 8); return code < BalanceSimulator.CLASS_TYPES.length ? BalanceSimulator.CLASS_TYPES[code] : "Other"; }
+        public int getEnemyType() { return map.get(offset + 9); }
+        public int getEnemyLevel() { return map.getShort(offset + 10); }
+        public int getLevel() { return map.getShort(offset + 12); }
+        public int getPrecision() { return map.getShort(offset + 14); }
+        public int getStamina() { return map.getShort(offset + 16); }
+        public int getCreativity() { return map.getShort(offset + 18); }
+        public int getFlavorSense() { return map.getShort(offset + 20); }
+        public int getSpeed() { return map.getShort(offset + 22); }
+        public int getMaxHP() { return map.getShort(offset + 24); }
+        public int getTurns() { return map.getShort(offset + 26) & 0xFFFF; }
+        public byte getOutcome() { return map.get(offset + 28); }
+        public boolean isHashed() { return hashed; }
+        public int getExperience() { return hashed ? map.getInt(offset + 29) : 0; }
+        public int getStartHash() { return map.getInt(offset + 33); } // Only if hashed
+        public int getEndHash() { return map.getInt(offset + 37); } // Only if hashed
+
+        // Turns (0 to getTurns() - 1)
+        public int getAttack(int turn) { return (flags(turn) & ATTACK_MASK) + 1; }
+        public boolean isCritical(int turn) { return (flags(turn) & CRITICAL) != 0; }
+        public boolean isCounterattack(int turn) { return (flags(turn) & COUNTERATTACK) != 0; }
+        public boolean isDodged(int turn) { return (flags(turn) & DODGED) != 0; }
+        public int getDamage(int turn) { return map.getShort(turnAt(turn) + 1); }
+        public int getDamageTaken(int turn) { return map.getShort(turnAt(turn) + 3); }
+        public int getHash(int turn) { return map.getInt(turnAt(turn) + 5); } // Only if hashed
+
+        private int turnAt(int turn) { return offset + battleBytes + turn * turnBytes; }
+        private int flags(int turn) { return map.get(turnAt(turn)); }
+
+        /**
+         * Rebuilds the player as they were when the battle started (at full HP).
+         * @return A new player.
+         */
+        public Player createPlayer()
+        {
+            int[] stats = { getPrecision(), getStamina(), getCreativity(), getFlavorSense(), getSpeed() };
+            return new Player("Replay", getClassType(), getLevel(), getExperience(), stats, getMaxHP(), getMaxHP());
+        }
+
+        /**
+         * Rebuilds the enemy as it was when the battle started.
+         * @return A new enemy.
+         */
+        public Enemy createEnemy()
+        {
+            return EnemyFactory.createEnemy(getEnemyType(), getEnemyLevel());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+import java.io.IOException; // Imports the error thrown when the replay file can’t be read
+import java.nio.file.Paths; // Imports path creation
+import java.util.stream.IntStream; // Imports the parallel stream that spreads battles over all cores
+
+/**
+ * Re-runs every battle in a replay file with the current BattleEngine and checks each turn
+ * still comes out the same (same crits, dodges and damage, same state hash, same winner and XP).
+ * The state hash covers HP, stats and the RNG’s position, so a change to damage formulas,
+ * enemy scaling or levelling up shows up at the first turn it touches, even if the HP happen to match.
+ * Run it against replays recorded by an older build to catch balance changes nobody meant
+ * to make: any battle that plays out differently is reported with the first turn that changed.
+ * Battles are re-run in parallel straight from the mapped file.
+ */
+public class ReplayVerifier
+{
+    private final ReplayFile replays; // The battles to check
+
+    /**
+     * Constructor: Sets up a verifier.
+     * @param replays The replay file, opened for reading.
+     */
+    public ReplayVerifier(ReplayFile replays)
+    {
+        this.replays = replays;
+    }
+
+    /**
+     * Re-runs one battle.
+     * @param index The battle’s place in the file.
+     * @return -1 if the battle plays out exactly as recorded, otherwise where it first differs:
+     *         0 for the start, a turn (from 1), or the battle’s turns + 1 for the end (winner or XP).
+     */
+    public int check(int index)
+    {
+        ReplayFile.Battle battle = replays.get(index);
+        BattleEngine engine = new BattleEngine(battle.createPlayer(), battle.createEnemy(), battle.getSeed());
+        engine.startBattle(); // Heals player to full HP, as when it was recorded
+        if (battle.isHashed() && (int) engine.getStateHash() != battle.getStartHash()) return 0; // e.g. the enemy scales differently
+        for (int turn = 0; turn < battle.getTurns(); turn++)
+        {
+            if (engine.isOver()) return turn + 1; // Ended sooner than it used to
+            BattleEngine.TurnResult result = engine.resolveTurn(battle.getAttack(turn));
+            if (result.isCritical() != battle.isCritical(turn) || result.isCounterattack() != battle.isCounterattack(turn)
+                    || result.isDodged() != battle.isDodged(turn) || result.getDamage() != battle.getDamage(turn)
+                    || result.getEnemyDamage() != battle.getDamageTaken(turn)
+                    || battle.isHashed() && (int) result.getStateHash() != battle.getHash(turn))
+            {
+                return turn + 1;
+            }
+        }
+        if (engine.isEnemyDefeated()) engine.awardExperience(); // As when it was recorded
+        byte outcome = engine.isEnemyDefeated() ? ReplayFile.WON : engine.isPlayerDefeated() ? ReplayFile.LOST : ReplayFile.UNFINISHED;
+        boolean same = outcome == battle.getOutcome() && (!battle.isHashed() || (int) engine.getStateHash() == battle.getEndHash());
+        return same ? -1 : battle.getTurns() + 1;
+    }
+
+    /**
+     * Describes where a battle first differed.
+     * @param battle The battle.
+     * @param result What check returned for it (not -1).
+     * @return e.g. "turn 3".
+     */
+    static String where(ReplayFile.Battle battle, int result)
+    {
+        if (result == 0) return "the start (player or enemy stats)";
+        if (result > battle.getTurns()) return "the end (winner, experience or level up)";
+        return "turn " + result + " of " + battle.getTurns();
+    }
+
+    /**
+     * Checks every battle, in parallel.
+     * @return For each battle, what check returned.
+     */
+    public int[] checkAll()
+    {
+        int[] results = new int[replays.size()];
+        IntStream.range(0, results.length).parallel().forEach(i -> results[i] = check(i));
+        return results;
+    }
+
+    /**
+     * Describes a battle in one line.
+     * @param battle The battle.
+     * @return e.g. "Grill Master L5 vs Sushi Samurai L5, seed 123".
+     */
+    static String describe(ReplayFile.Battle battle)
+    {
+        String enemyName = EnemyFactory.createEnemy(battle.getEnemyType(), battle.getEnemyLevel()).getName();
+        return battle.getClassType() + " L" + battle.getLevel() + " vs " + enemyName + " L" + battle.getEnemyLevel()
+                + ", seed " + battle.getSeed();
+    }
+
+    /**
+     * Verifies a replay file and prints a summary.
+     * @param args Optional: the replay file (default -Dcarby.replays, or carby.replays).
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String path = args.length > 0 ? args[0] : System.getProperty("carby.replays", "carby.replays");
+        ReplayFile replays = new ReplayFile(Paths.get(path), false);
+        long start = System.nanoTime();
+        int[] results = new ReplayVerifier(replays).checkAll();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long turns = 0, wins = 0, diverged = 0;
+        int firstDiverged = -1;
+        for (int i = 0; i < results.length; i++)
+        {
+            ReplayFile.Battle battle = replays.get(i);
+            turns += battle.getTurns();
+            if (battle.getOutcome() == ReplayFile.WON) wins++;
+            if (results[i] >= 0)
+            {
+                diverged++;
+                if (firstDiverged < 0) firstDiverged = i;
+            }
+        }
+        int n = Math.max(1, results.length);
+        System.out.printf("%-22s %,12d%n", "Battles", results.length);
+        System.out.printf("%-22s %11.1f%%%n", "Recorded win rate", 100.0 * wins / n);
+        System.out.printf("%-22s %12.2f%n", "Turns (mean)", (double) turns / n);
+        System.out.printf("%-22s %,12d%n", "Played out differently", diverged);
+        if (firstDiverged >= 0)
+        {
+            ReplayFile.Battle battle = replays.get(firstDiverged);
+            System.out.println("First: battle " + firstDiverged + " (" + describe(battle) + ") changed at " + where(battle, results[firstDiverged]));
+        }
+        System.out.printf("%,d battles (%,d turns) re-run in %.2f s (%d cores)%s%n", results.length, turns, seconds,
+                Runtime.getRuntime().availableProcessors(), replays.getVersion() == 1 ? ", no state hashes (version 1 file)" : "");
+        System.exit(diverged == 0 ? 0 : 1); // Lets a build script fail on a change
+    }
+}
\ No newline at end of file
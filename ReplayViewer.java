@@ -0,0 +1,135 @@
+import javax.swing.*; // Imports Swing components for the viewer window
+import java.awt.*; // Imports layout and font classes
+import java.io.IOException; // Imports the error thrown when the replay file can’t be read
+import java.nio.file.Paths; // Imports path creation
+
+/**
+ * A window for scrubbing through recorded battles: one slider picks the battle, the other
+ * steps through its turns. Battles are read straight from the mapped ReplayFile, so moving
+ * the sliders doesn’t load or parse anything and stays smooth even with thousands of battles.
+ */
+public class ReplayViewer extends JFrame
+{
+    private final ReplayFile replays; // The recorded battles
+    private final JSlider battleSlider; // Picks the battle
+    private final JSlider turnSlider; // Steps through its turns
+    private final JTextArea text = new JTextArea(); // Shows the battle up to the chosen turn
+
+    /**
+     * Constructor: Opens the viewer on a replay file.
+     * @param replays The replay file, opened for reading.
+     */
+    public ReplayViewer(ReplayFile replays)
+    {
+        super("Cooking with Carby - Replays");
+        this.replays = replays;
+        setSize(640, 480);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        battleSlider = new JSlider(0, Math.max(0, replays.size() - 1), 0);
+        turnSlider = new JSlider(0, 0, 0);
+        battleSlider.addChangeListener(e -> showBattle());
+        turnSlider.addChangeListener(e -> showTurns());
+
+        JPanel sliders = new JPanel(new GridLayout(2, 1));
+        sliders.setBackground(Theme.PARCHMENT);
+        sliders.add(labelled("Battle", battleSlider));
+        sliders.add(labelled("Turn", turnSlider));
+
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        text.setBackground(Theme.PARCHMENT);
+        text.setForeground(Theme.INK);
+        JScrollPane scroll = new JScrollPane(text);
+        scroll.setBorder(Theme.TEXT_BORDER);
+
+        getContentPane().setBackground(Theme.TRIM);
+        add(sliders, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+        showBattle();
+    }
+
+    /**
+     * Puts a label in front of a slider.
+     */
+    private static JPanel labelled(String label, JSlider slider)
+    {
+        JPanel row = new JPanel(new BorderLayout());
+        row.setBackground(Theme.PARCHMENT);
+        JLabel name = new JLabel(label);
+        name.setForeground(Theme.INK);
+        name.setPreferredSize(new Dimension(60, 20));
+        slider.setBackground(Theme.PARCHMENT);
+        row.add(name, BorderLayout.WEST);
+        row.add(slider, BorderLayout.CENTER);
+        return row;
+    }
+
+    /**
+     * Switches to the battle the battle slider points at, showing all its turns.
+     */
+    private void showBattle()
+    {
+        if (replays.size() == 0)
+        {
+            text.setText("No battles recorded yet.");
+            return;
+        }
+        int turns = replays.get(battleSlider.getValue()).getTurns();
+        turnSlider.setMaximum(turns);
+        turnSlider.setValue(turns); // Fires showTurns if it changed
+        showTurns();
+    }
+
+    /**
+     * Shows the chosen battle up to the chosen turn.
+     */
+    private void showTurns()
+    {
+        if (replays.size() == 0) return;
+        int index = battleSlider.getValue();
+        ReplayFile.Battle battle = replays.get(index);
+        String[] attacks = BattleEngine.getClassAttacks(battle.getClassType());
+        int playerHP = battle.getMaxHP();
+        int enemyHP = battle.createEnemy().getHP(); // The enemy starts at full HP
+        int shown = Math.min(turnSlider.getValue(), battle.getTurns());
+
+        StringBuilder out = new StringBuilder();
+        out.append("Battle ").append(index + 1).append(" of ").append(replays.size()).append(": ")
+                .append(ReplayVerifier.describe(battle)).append('\n');
+        out.append("Stats: precision ").append(battle.getPrecision()).append(", stamina ").append(battle.getStamina())
+                .append(", creativity ").append(battle.getCreativity()).append(", flavor sense ").append(battle.getFlavorSense())
+                .append(", speed ").append(battle.getSpeed()).append("\n\n");
+        out.append(String.format("Start      You %4d   Enemy %4d%n", playerHP, enemyHP));
+        for (int turn = 0; turn < shown; turn++)
+        {
+            enemyHP = Math.max(0, enemyHP - battle.getDamage(turn));
+            playerHP = Math.max(0, playerHP - battle.getDamageTaken(turn));
+            out.append(String.format("Turn %-4d  You %4d   Enemy %4d   %s for %d%s", turn + 1, playerHP, enemyHP,
+                    attacks[battle.getAttack(turn) - 1], battle.getDamage(turn), battle.isCritical(turn) ? " (critical!)" : ""));
+            if (battle.isCounterattack(turn))
+            {
+                out.append(battle.isDodged(turn) ? ", dodged the counterattack" : ", took " + battle.getDamageTaken(turn));
+            }
+            out.append('\n');
+        }
+        if (shown == battle.getTurns())
+        {
+            byte outcome = battle.getOutcome();
+            out.append('\n').append(outcome == ReplayFile.WON ? "Won" : outcome == ReplayFile.LOST ? "Lost" : "Unfinished").append('\n');
+        }
+        text.setText(out.toString());
+        text.setCaretPosition(text.getDocument().getLength()); // Keeps the chosen turn in view
+    }
+
+    /**
+     * Opens the viewer.
+     * @param args Optional: the replay file (default -Dcarby.replays, or carby.replays).
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String path = args.length > 0 ? args[0] : System.getProperty("carby.replays", "carby.replays");
+        ReplayFile replays = new ReplayFile(Paths.get(path), false);
+        SwingUtilities.invokeLater(() -> new ReplayViewer(replays).setVisible(true));
+    }
+}
\ No newline at end of file
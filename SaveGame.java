@@ -0,0 +1,326 @@
+import java.io.IOException; // Imports the error thrown by file operations
+import java.nio.BufferOverflowException; // Imports the error for an encode buffer that was too small
+import java.nio.BufferUnderflowException; // Imports the error for a save cut short
+import java.nio.ByteBuffer; // Imports the buffer saves are encoded into and decoded from
+import java.nio.MappedByteBuffer; // Imports the memory-mapped view of the save file
+import java.nio.channels.FileChannel; // Imports direct file access (mapping, forcing to disk)
+import java.nio.charset.StandardCharsets; // Imports UTF-8 for names
+import java.nio.file.AtomicMoveNotSupportedException; // Imports the error for file systems without atomic renames
+import java.nio.file.Files; // Imports file moves and checks
+import java.nio.file.NoSuchFileException; // Imports the error for no save yet
+import java.nio.file.Path; // Imports file paths
+import java.nio.file.Paths; // Imports path creation
+import java.nio.file.StandardCopyOption; // Imports the rename options
+import java.nio.file.StandardOpenOption; // Imports the file open options
+import java.util.ArrayList; // Imports ArrayList, a resizable list for storing NPCs
+import java.util.List; // Imports List interface
+import java.util.concurrent.ExecutorService; // Imports the save thread
+import java.util.concurrent.Executors; // Imports factory for the save thread
+import java.util.concurrent.TimeUnit; // Imports time units for the exit wait
+import java.util.concurrent.atomic.AtomicLong; // Imports thread-safe counters
+import java.util.concurrent.atomic.AtomicReference; // Imports the hand-off of the newest save
+import java.util.zip.CRC32; // Imports the checksum that catches a damaged save
+
+/**
+ * Saves and loads the game: the player, battles fought, Carby wins and every NPC met with
+ * their affection.
+ * The save is a small versioned binary record (a few hundred bytes). Encoding it on the EDT
+ * takes microseconds; writing it happens on a save thread, into a temp file that is forced
+ * to disk and then renamed over the old save, so a crash mid-save leaves the last good save.
+ * If saves come faster than the disk, only the newest is written.
+ * Loading maps the file and decodes it in one pass. The layout (big-endian) is:
+ *   int magic "CRBY", short version,
+ *   player: name, class, then ints level, experience, precision, stamina, creativity,
+ *           flavor sense, speed, HP, max HP,
+ *   int battles, int Carby defeats,
+ *   short NPC count, then per NPC: name, byte affection,
+ *   int CRC32 of everything before it.
+ * Strings are a short byte count followed by UTF-8. The file is -Dcarby.save (default carby.sav).
+ */
+public class SaveGame
+{
+    static final int MAGIC = 0x43524259; // "CRBY"
+    static final short VERSION = 1; // Bump (and keep reading the old layout) when the layout changes
+    private static final int MAX_SIZE = 1024 * 1024; // Far bigger than any real save; anything larger is not ours
+
+    private static final SaveGame shared = new SaveGame(Paths.get(System.getProperty("carby.save", "carby.sav"))); // The game’s save
+
+    private final Path path; // The save file
+    private final Path temp; // Where a save is written before it replaces the old one
+    private final ExecutorService writer; // The save thread
+    private final AtomicReference<byte[]> pending = new AtomicReference<>(); // Newest save not written yet
+
+    // Metrics
+    private final LatencyHistogram writes = new LatencyHistogram(); // Time to write, force and rename
+    private final AtomicLong saves = new AtomicLong(); // Saves requested
+    private final AtomicLong skipped = new AtomicLong(); // Saves replaced by a newer one before being written
+    private final AtomicLong failures = new AtomicLong(); // Saves that couldn’t be written
+    private volatile long loadNanos = -1; // Time the last load took
+
+    /**
+     * Constructor: Sets up saving to a file.
+     * @param path The save file.
+     */
+    public SaveGame(Path path)
+    {
+        this.path = path;
+        this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+        writer = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "save-writer");
+            thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::finish, "save-finish")); // Lets a save in progress land
+    }
+
+    /**
+     * Gets the save used by the game.
+     * @return The shared save.
+     */
+    public static SaveGame shared() { return shared; }
+
+    /**
+     * Saves the game in the background. Call on the thread that owns the controller (the EDT);
+     * only the encoding happens here.
+     * @param controller The game to save (must have a player).
+     */
+    public void save(GameController controller)
+    {
+        saves.incrementAndGet();
+        byte[] record = encode(controller);
+        if (pending.getAndSet(record) != null) // A write is already queued; it will pick up this one instead
+        {
+            skipped.incrementAndGet();
+            return;
+        }
+        writer.execute(this::writePending);
+    }
+
+    /**
+     * Writes the newest save to the temp file, forces it to disk, then renames it over the save (save thread).
+     */
+    private void writePending()
+    {
+        byte[] record = pending.getAndSet(null);
+        if (record == null) return;
+        long start = System.nanoTime();
+        try
+        {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true); // On disk before it replaces the old save
+            }
+            try
+            {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) // Some file systems can’t; a plain replace is the best left
+            {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writes.record(System.nanoTime() - start);
+        }
+        catch (IOException e) // Disk full, read-only folder, ... (the old save is untouched)
+        {
+            failures.incrementAndGet();
+            System.err.println("Couldn't save to " + path + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits briefly for a queued save to be written (when the game exits).
+     */
+    private void finish()
+    {
+        writer.shutdown();
+        try
+        {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) // Exiting anyway
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the save with a single mapped read.
+     * @return The saved game, or null if there is no save or it can’t be read.
+     */
+    public Data load()
+    {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > MAX_SIZE) throw new IOException("too large (" + size + " bytes)");
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Data data = decode(mapped);
+            loadNanos = System.nanoTime() - start;
+            return data;
+        }
+        catch (NoSuchFileException e) // No save yet
+        {
+            return null;
+        }
+        catch (IOException | RuntimeException e) // Damaged or not a save: start fresh rather than crash
+        {
+            System.err.println("Couldn't load " + path + " - " + e.getMessage() + ". Starting a new game.");
+            return null;
+        }
+    }
+
+    /**
+     * Encodes a game into a save record.
+     * @param controller The game (must have a player).
+     * @return The record, checksum included.
+     */
+    static byte[] encode(GameController controller)
+    {
+        return encode(controller.getPlayer(), controller.getBattleCount(), controller.getCarbyDefeats(),
+                controller.getEncounteredNPCs());
+    }
+
+    /**
+     * Encodes a saved game back into a save record (e.g., the journal’s folded state).
+     * @param data The saved game.
+     * @return The record, checksum included.
+     */
+    static byte[] encode(Data data)
+    {
+        return encode(data.player, data.battleCount, data.carbyDefeats, data.npcs);
+    }
+
+    /**
+     * Encodes the parts of a game into a save record.
+     */
+    private static byte[] encode(Player player, int battleCount, int carbyDefeats, List<NPCFactory.NPC> npcs)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(1024 + npcs.size() * 64); // Grown below if names are unusually long
+        while (true)
+        {
+            try
+            {
+                buffer.putInt(MAGIC).putShort(VERSION);
+                putString(buffer, player.getName());
+                putString(buffer, player.getClassType());
+                buffer.putInt(player.getLevel()).putInt(player.getExperience());
+                buffer.putInt(player.getPrecision()).putInt(player.getStamina()).putInt(player.getCreativity());
+                buffer.putInt(player.getFlavorSense()).putInt(player.getSpeed());
+                buffer.putInt(player.getHP()).putInt(player.getMaxHP());
+                buffer.putInt(battleCount).putInt(carbyDefeats);
+                buffer.putShort((short) npcs.size());
+                for (NPCFactory.NPC npc : npcs)
+                {
+                    putString(buffer, npc.getName());
+                    buffer.put((byte) npc.getAffectionLevel()); // Capped at -10 to 10, so a byte holds it
+                }
+                CRC32 crc = new CRC32();
+                crc.update(buffer.array(), 0, buffer.position());
+                buffer.putInt((int) crc.getValue());
+                byte[] record = new byte[buffer.position()];
+                System.arraycopy(buffer.array(), 0, record, 0, record.length);
+                return record;
+            }
+            catch (BufferOverflowException e) // Rare: start over with more room
+            {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Decodes a save record.
+     * @param buffer The record (e.g., the mapped file).
+     * @return The saved game.
+     * @throws IOException If it isn’t a save, is from a newer version, or is damaged.
+     */
+    static Data decode(ByteBuffer buffer) throws IOException
+    {
+        try
+        {
+            int length = buffer.remaining();
+            if (buffer.getInt(0) != MAGIC) throw new IOException("not a save file");
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit(length - 4);
+            crc.update(body); // Checked before anything is trusted
+            if ((int) crc.getValue() != buffer.getInt(length - 4)) throw new IOException("checksum mismatch");
+
+            buffer.getInt(); // Magic
+            short version = buffer.getShort();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported version " + version);
+            String name = getString(buffer);
+            String classType = getString(buffer);
+            int level = buffer.getInt();
+            int experience = buffer.getInt();
+            int[] stats = new int[5];
+            for (int i = 0; i < stats.length; i++) stats[i] = buffer.getInt();
+            int hp = buffer.getInt();
+            int maxHP = buffer.getInt();
+            Data data = new Data(new Player(name, classType, level, experience, stats, hp, maxHP));
+            data.battleCount = buffer.getInt();
+            data.carbyDefeats = buffer.getInt();
+            int npcCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < npcCount; i++)
+            {
+                String npcName = getString(buffer);
+                data.npcs.add(new NPCFactory.NPC(npcName, buffer.get()));
+            }
+            return data;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) // Cut short
+        {
+            throw new IOException("truncated save");
+        }
+    }
+
+    /**
+     * Writes a string as a short byte count and UTF-8.
+     */
+    private static void putString(ByteBuffer buffer, String text)
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF); // A name typed that long is cut short
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+
+    /**
+     * Reads a string written by putString.
+     */
+    private static String getString(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Metrics
+    public LatencyHistogram getWrites() { return writes; }
+    public long getSaves() { return saves.get(); }
+    public long getSkipped() { return skipped.get(); }
+    public long getFailures() { return failures.get(); }
+    public double getLoadMillis() { return loadNanos < 0 ? 0 : loadNanos / 1e6; }
+    public Path getPath() { return path; }
+
+    /**
+     * A saved game, ready for GameController.resume.
+     */
+    static class Data
+    {
+        final Player player; // The player, stats and all
+        int battleCount; // Battles fought
+        int carbyDefeats; // Times Carby was beaten
+        final List<NPCFactory.NPC> npcs = new ArrayList<>(); // NPCs met, with their affection
+
+        Data(Player player)
+        {
+            this.player = player;
+        }
+    }
+}
\ No newline at end of file
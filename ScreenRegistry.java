@@ -0,0 +1,109 @@
+import javax.swing.JPanel; // Imports panels used as screens
+import java.awt.CardLayout; // Imports the layout that flips between screens
+import java.util.HashMap; // Imports map of built screens
+import java.util.Map; // Imports Map interface
+import java.util.function.Supplier; // Imports the screen builder type
+
+/**
+ * Registry of the game’s screens for Cooking with Carby.
+ * Each screen (title, menu, city, battle, ...) is a panel built once, the first time
+ * it is asked for, and kept as a card in the visual panel. Navigating just flips cards,
+ * so no buttons, listeners or fonts are allocated and the other screens aren’t laid out
+ * again; callers only update a screen’s dynamic parts (text, enabled buttons) before showing it.
+ */
+public class ScreenRegistry
+{
+    private final JPanel container; // The panel the screens are stacked in
+    private final CardLayout cards = new CardLayout(); // Shows one screen at a time
+    private final Map<String, JPanel> screens = new HashMap<>(); // Built screens by name
+    private String current; // Name of the screen on display
+
+    /**
+     * Constructor: Turns a panel into a stack of screens.
+     * @param container The panel to show screens in (its layout is replaced).
+     */
+    public ScreenRegistry(JPanel container)
+    {
+        this.container = container;
+        container.setLayout(cards);
+    }
+
+    /**
+     * Gets a screen, building and registering it the first time.
+     * Must be called on the EDT.
+     * @param name The screen’s name (e.g., "menu").
+     * @param builder Builds the screen (only called once).
+     * @return The screen.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends JPanel> T screen(String name, Supplier<T> builder)
+    {
+        JPanel screen = screens.get(name);
+        if (screen == null) // First visit: build it and add it as a card
+        {
+            screen = builder.get();
+            screens.put(name, screen);
+            container.add(screen, name);
+        }
+        return (T) screen;
+    }
+
+    /**
+     * Gets a screen only if it has been built.
+     * Must be called on the EDT.
+     * @param name The screen’s name.
+     * @return The screen, or null if it hasn’t been built yet.
+     */
+    public JPanel get(String name)
+    {
+        return screens.get(name);
+    }
+
+    /**
+     * Shows a registered screen (does nothing if it is already showing).
+     * Must be called on the EDT.
+     * @param name The screen’s name.
+     */
+    public void show(String name)
+    {
+        if (name.equals(current)) // Dynamic parts were already updated in place
+        {
+            container.repaint();
+            return;
+        }
+        if (!screens.containsKey(name))
+        {
+            throw new IllegalArgumentException("No screen registered as " + name);
+        }
+        current = name;
+        cards.show(container, name); // Flips visibility; the screens keep their layout
+    }
+
+    /**
+     * Builds (if needed) and shows a screen in one call.
+     * @param name The screen’s name.
+     * @param builder Builds the screen (only called once).
+     * @return The screen.
+     */
+    public <T extends JPanel> T show(String name, Supplier<T> builder)
+    {
+        T screen = screen(name, builder);
+        show(name);
+        return screen;
+    }
+
+    /**
+     * Creates an empty screen: transparent (so the background shows) with absolute positioning.
+     * @return The new screen panel.
+     */
+    public static JPanel blank()
+    {
+        JPanel screen = new JPanel(null); // Uses absolute positioning (setBounds) for buttons
+        screen.setOpaque(false); // Lets the visual panel’s background show through
+        return screen;
+    }
+
+    // Getters
+    public String getCurrent() { return current; }
+    public int getScreenCount() { return screens.size(); }
+}
\ No newline at end of file
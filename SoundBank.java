@@ -0,0 +1,231 @@
+import javax.sound.sampled.*; // Imports tools for decoding audio files
+import java.io.File; // Imports File class to work with sound files
+import java.util.concurrent.ConcurrentHashMap; // Imports thread-safe map of decoded sounds
+import java.util.concurrent.ExecutorService; // Imports the decoder thread
+import java.util.concurrent.Executors; // Imports factory for the decoder thread
+
+/**
+ * Sound bank for Cooking with Carby.
+ * Each WAV file is decoded once, converted to the AudioMixer’s format (44.1 kHz, 16-bit
+ * stereo) and kept in memory; playing a sound just hands those samples to a mixer voice,
+ * so clicks and combat sounds never open files, allocate Clips or hold their own lines.
+ * Music is streamed instead (see MusicTrack): each track is opened once and kept warm,
+ * and switching tracks crossfades them on the mixer’s MUSIC bus.
+ */
+public class SoundBank
+{
+    // Sounds the game is known to play, preloaded at startup
+    static final String[] KNOWN_SOUNDS = {
+        "src/resources/button_click.wav", "src/resources/player_attack.wav",
+        "src/resources/critical_sound.wav", "src/resources/dodge_sound.wav",
+        "src/resources/enemy_attack.wav"
+    };
+
+    static final int CROSSFADE_MS = 1000; // How long music takes to fade between tracks
+
+    private static final short[] MISSING = new short[0]; // Marker for files that failed to decode
+    private static final SoundBank shared = new SoundBank(AudioMixer.shared()); // The game’s sound bank
+
+    private final AudioMixer mixer; // Where sounds are played
+    private final ConcurrentHashMap<String, short[]> sounds = new ConcurrentHashMap<>(); // Decoded samples by path
+    private final ExecutorService decoder; // Background thread that decodes files
+    private final ConcurrentHashMap<String, MusicTrack> music = new ConcurrentHashMap<>(); // Warm tracks by path
+
+    /**
+     * Constructor: Creates a sound bank that plays through the given mixer.
+     * @param mixer The mixer to play sounds on.
+     */
+    public SoundBank(AudioMixer mixer)
+    {
+        this.mixer = mixer;
+        decoder = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "sound-decoder");
+            thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the sound bank used by the game.
+     * @return The shared sound bank.
+     */
+    public static SoundBank shared() { return shared; }
+
+    /**
+     * Decodes sounds in the background so the first play is instant.
+     * @param soundFiles The sound files to decode.
+     */
+    public void preload(String... soundFiles)
+    {
+        for (String soundFile : soundFiles)
+        {
+            decoder.execute(() -> get(soundFile));
+        }
+    }
+
+    /**
+     * Plays a sound effect without blocking the caller.
+     * @param soundFile Path to the sound file (e.g., "src/resources/button_click.wav").
+     */
+    public void play(String soundFile)
+    {
+        play(soundFile, null);
+    }
+
+    /**
+     * Plays a sound effect without blocking the caller, then runs a callback.
+     * @param soundFile Path to the sound file.
+     * @param onDone Called once the sound has finished (or couldn’t play); may be null.
+     *               Runs on the mixer or decoder thread, so keep it short.
+     */
+    public void play(String soundFile, Runnable onDone)
+    {
+        short[] samples = sounds.get(soundFile);
+        if (samples == null) // Not decoded yet: decode off the caller’s thread, then play
+        {
+            decoder.execute(() -> start(get(soundFile), onDone));
+            return;
+        }
+        start(samples, onDone);
+    }
+
+    /**
+     * Hands decoded samples to a mixer voice on the SFX bus.
+     */
+    private void start(short[] samples, Runnable onDone)
+    {
+        if (samples != MISSING && mixer.play(samples, AudioMixer.SFX, 1.0f, false, onDone) >= 0) return;
+        if (onDone != null) onDone.run(); // Missing file or no free voice: move on without the sound
+    }
+
+    /**
+     * Opens music tracks and fills their buffers in the background, so the first switch is instant.
+     * @param musicFiles The music files to open.
+     */
+    public void preloadMusic(String... musicFiles)
+    {
+        for (String musicFile : musicFiles)
+        {
+            track(musicFile);
+        }
+    }
+
+    /**
+     * Crossfades to a looping music track, fading out whatever else was playing.
+     * Returns at once; the track resumes where it last left off.
+     * @param musicFile Path to the music file (e.g., "src/resources/normal_music.wav").
+     */
+    public void playMusic(String musicFile)
+    {
+        MusicTrack next = track(musicFile);
+        for (MusicTrack track : music.values())
+        {
+            if (track != next) mixer.fadeTo(track, 0f, CROSSFADE_MS);
+        }
+        mixer.fadeTo(next, 1.0f, CROSSFADE_MS);
+    }
+
+    /**
+     * Fades out all music (the tracks stay open for next time).
+     */
+    public void stopMusic()
+    {
+        for (MusicTrack track : music.values())
+        {
+            mixer.fadeTo(track, 0f, CROSSFADE_MS);
+        }
+    }
+
+    /**
+     * Gets the warm track for a music file, opening it on first use.
+     */
+    private MusicTrack track(String musicFile)
+    {
+        return music.computeIfAbsent(musicFile, MusicTrack::new);
+    }
+
+    /**
+     * Gets decoded samples, decoding them on first use.
+     * @return The samples, or MISSING if the file couldn’t be decoded (reported once).
+     */
+    private short[] get(String soundFile)
+    {
+        return sounds.computeIfAbsent(soundFile, SoundBank::decode);
+    }
+
+    /**
+     * Reads a sound file fully and converts it to the mixer’s format.
+     * @param soundFile Path to the sound file.
+     * @return Interleaved stereo samples at the mixer’s rate, or MISSING if it failed.
+     */
+    static short[] decode(String soundFile)
+    {
+        try (AudioInputStream decoded = openPcm(soundFile)) // Prepares audio data
+        {
+            AudioFormat pcm = decoded.getFormat();
+            return toMixerFormat(decoded.readAllBytes(), pcm.getChannels(), pcm.getSampleRate());
+        }
+        catch (Exception e) // Catches errors (e.g., file not found)
+        {
+            System.err.println("Error playing sound: " + soundFile + " - " + e.getMessage()); // Prints error
+            return MISSING;
+        }
+    }
+
+    /**
+     * Opens a sound file as 16-bit signed little-endian PCM at its own rate and channel count.
+     * @param soundFile Path to the sound file.
+     * @return The open stream (the caller closes it).
+     * @throws Exception If the file is missing or its format isn’t supported.
+     */
+    static AudioInputStream openPcm(String soundFile) throws Exception
+    {
+        AudioInputStream source = AudioSystem.getAudioInputStream(new File(soundFile));
+        AudioFormat format = source.getFormat();
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        if (format.matches(pcm)) return source; // Already 16-bit PCM
+        return AudioSystem.getAudioInputStream(pcm, source); // Converts to 16-bit PCM
+    }
+
+    /**
+     * Converts 16-bit little-endian PCM to interleaved stereo at the mixer’s rate.
+     * Mono is copied to both sides, extra channels are dropped, and other rates are
+     * resampled with linear interpolation.
+     * @param pcm The samples as bytes.
+     * @param channels Channels in the source.
+     * @param sampleRate Sample rate of the source.
+     * @return The converted samples.
+     */
+    static short[] toMixerFormat(byte[] pcm, int channels, float sampleRate)
+    {
+        int frames = pcm.length / (channels * 2);
+        double step = sampleRate / AudioMixer.FORMAT.getSampleRate(); // Source frames per mixer frame
+        int outFrames = frames == 0 ? 0 : (int) ((frames - 1) / step) + 1;
+        short[] out = new short[outFrames * 2];
+        for (int i = 0; i < outFrames; i++)
+        {
+            double at = i * step;
+            int frame = (int) at;
+            int next = Math.min(frame + 1, frames - 1);
+            double t = at - frame;
+            for (int side = 0; side < 2; side++)
+            {
+                int channel = Math.min(side, channels - 1); // Mono feeds both sides
+                int a = sample(pcm, frame * channels + channel);
+                int b = sample(pcm, next * channels + channel);
+                out[i * 2 + side] = (short) Math.round(a + (b - a) * t);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads one 16-bit little-endian sample.
+     */
+    private static int sample(byte[] pcm, int index)
+    {
+        return (short) ((pcm[index * 2] & 0xFF) | (pcm[index * 2 + 1] << 8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+import java.awt.image.BufferedImage; // Imports in-memory images
+import java.io.File; // Imports File class to find animation files
+import java.io.Reader; // Imports the reader for animation files
+import java.nio.charset.StandardCharsets; // Imports UTF-8 (attack names have accents, e.g. "Flambé Blast")
+import java.nio.file.Files; // Imports helper for opening files
+import java.util.HashMap; // Imports map of clips by name
+import java.util.Map; // Imports Map interface
+import java.util.Properties; // Imports the key=value reader for animation files
+import java.util.concurrent.CompletableFuture; // Imports results that arrive later
+import java.util.concurrent.ConcurrentHashMap; // Imports thread-safe map of sheets
+import java.util.concurrent.ExecutorService; // Imports the loader thread
+import java.util.concurrent.Executors; // Imports factory for the loader thread
+
+/**
+ * Shared atlas of sprite-sheet animations for Cooking with Carby.
+ * Each character’s sheet is one image, decoded once through the AssetManager, holding all
+ * of its clips (idle, attack, hit, defeat and any per-attack clips) as rows of equal-sized
+ * frames. Drawing a frame is a copy out of that one image, so every animated sprite showing
+ * the same character shares one texture and no frame is ever loaded or allocated on its own.
+ * When the AssetManager evicts a sheet's image the atlas forgets that sheet, so the image
+ * counts against the asset budget like any other; the next sprite to ask loads it again.
+ *
+ * A sprite "src/resources/SushiSamurai.png" is animated by an optional
+ * "src/resources/SushiSamurai.anim" file (Java properties, UTF-8):
+ *   sheet=src/resources/SushiSamurai_sheet.png
+ *   size=256x256
+ *   idle=0,4,150,loop
+ *   attack=1,6,80
+ *   Knife\ Slice=2,6,80
+ * Each clip is "row, frames, milliseconds per frame", plus "loop" for clips that repeat.
+ * Keys match the names from Enemy.chooseAttack (spaces escaped with a backslash).
+ * Without an .anim file the plain sprite is used as a one-frame sheet, so it looks as before.
+ */
+public class SpriteAtlas
+{
+    // Clip names every character can play
+    static final String IDLE = "idle";
+    static final String ATTACK = "attack";
+    static final String HIT = "hit";
+    static final String DEFEAT = "defeat";
+
+    private static final SpriteAtlas shared = new SpriteAtlas(); // The game’s atlas
+
+    private final ConcurrentHashMap<String, CompletableFuture<Sheet>> sheets = new ConcurrentHashMap<>(); // Sheets by sprite path
+    private final ExecutorService loader; // Background thread that reads animation files
+
+    /**
+     * Constructor: Creates an empty atlas.
+     */
+    public SpriteAtlas()
+    {
+        loader = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "atlas-loader");
+            thread.setDaemon(true); // Doesn’t keep the game running after the window closes
+            thread.setPriority(Thread.MIN_PRIORITY); // Stays out of the way of the UI
+            return thread;
+        });
+        AssetManager.shared().onEvict(this::forget);
+    }
+
+    /**
+     * Gets the atlas used by the game.
+     * @return The shared atlas.
+     */
+    public static SpriteAtlas shared() { return shared; }
+
+    /**
+     * Gets a character’s sheet, loading it in the background the first time.
+     * @param spritePath The character’s sprite (e.g., Enemy.getSpritePath()).
+     * @return A future that completes with the sheet, or with null if its image couldn’t be loaded.
+     */
+    public CompletableFuture<Sheet> sheet(String spritePath)
+    {
+        return sheets.computeIfAbsent(spritePath, path ->
+                CompletableFuture.supplyAsync(() -> readAnimation(path), loader)
+                        .thenCompose(layout -> AssetManager.shared().load(layout.sheetPath)
+                                .thenApply(image -> image != null ? new Sheet(image, layout) : null)));
+    }
+
+    /**
+     * Drops the sheets drawn from an image the AssetManager evicted. Sprites already showing
+     * them keep their reference until they change character.
+     * @param imagePath The evicted image.
+     */
+    private void forget(String imagePath)
+    {
+        sheets.values().removeIf(future ->
+        {
+            if (!future.isDone() || future.isCompletedExceptionally()) return false; // Loads still in progress stay
+            Sheet sheet = future.join();
+            return sheet != null && sheet.path.equals(imagePath);
+        });
+    }
+
+    /**
+     * Reads a sprite’s .anim file, or lays out the plain sprite as one frame.
+     */
+    private static Layout readAnimation(String spritePath)
+    {
+        String base = spritePath.endsWith(".png") ? spritePath.substring(0, spritePath.length() - 4) : spritePath;
+        File file = new File(base + ".anim");
+        if (!file.isFile()) return new Layout(spritePath, 0, 0); // No animation: the whole image is the idle frame
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+            String[] size = properties.getProperty("size", "256x256").split("x");
+            Layout layout = new Layout(properties.getProperty("sheet", spritePath),
+                    Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+            for (String name : properties.stringPropertyNames())
+            {
+                if (name.equals("sheet") || name.equals("size")) continue;
+                String[] parts = properties.getProperty(name).split(",");
+                layout.clips.put(name, new Clip(layout.frameWidth, layout.frameHeight,
+                        Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()), parts.length > 3 && parts[3].trim().equals("loop")));
+            }
+            return layout;
+        }
+        catch (Exception e) // Catches a missing or broken file
+        {
+            System.err.println("Couldn't read animation " + file + " - " + e.getMessage() + ". Using the plain sprite.");
+            return new Layout(spritePath, 0, 0);
+        }
+    }
+
+    /**
+     * Where a sheet’s image is and how its clips are laid out (before the image is loaded).
+     */
+    private static class Layout
+    {
+        final String sheetPath; // The sheet image
+        final int frameWidth, frameHeight; // Size of one frame (0 means the whole image)
+        final Map<String, Clip> clips = new HashMap<>(); // Clips by name
+
+        Layout(String sheetPath, int frameWidth, int frameHeight)
+        {
+            this.sheetPath = sheetPath;
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+        }
+    }
+
+    /**
+     * One character’s sheet: the image every frame is drawn from, and its clips.
+     */
+    static class Sheet
+    {
+        final String path; // The sheet image’s path in the AssetManager
+        final BufferedImage image; // The whole sheet (shared by every sprite drawing it)
+        private final Map<String, Clip> clips; // Clips by name (never changed after loading)
+
+        Sheet(BufferedImage image, Layout layout)
+        {
+            this.path = layout.sheetPath;
+            this.image = image;
+            this.clips = layout.clips;
+            if (!clips.containsKey(IDLE)) // Plain sprites (and sheets without idle) stand still on the first frame
+            {
+                int width = layout.frameWidth > 0 ? layout.frameWidth : image.getWidth();
+                int height = layout.frameHeight > 0 ? layout.frameHeight : image.getHeight();
+                clips.put(IDLE, new Clip(width, height, 0, 1, 1000, true));
+            }
+        }
+
+        /**
+         * Finds a clip by name, falling back to "attack" for attack names and then to "idle".
+         * @param name The clip (e.g., "hit" or "Flambé Blast").
+         * @return The clip to play.
+         */
+        Clip clip(String name)
+        {
+            Clip clip = clips.get(name);
+            if (clip == null && !name.equals(HIT) && !name.equals(DEFEAT)) clip = clips.get(ATTACK); // An attack without its own clip
+            return clip != null ? clip : clips.get(IDLE);
+        }
+    }
+
+    /**
+     * One animation: a row of equal-sized frames in a sheet.
+     */
+    static class Clip
+    {
+        final int width, height; // Size of one frame
+        final int row; // Row in the sheet
+        final int frames; // Frames in the row
+        final int frameMillis; // How long each frame shows
+        final boolean loop; // Whether it repeats (otherwise it holds its last frame)
+
+        Clip(int width, int height, int row, int frames, int frameMillis, boolean loop)
+        {
+            this.width = width;
+            this.height = height;
+            this.row = row;
+            this.frames = Math.max(1, frames);
+            this.frameMillis = Math.max(1, frameMillis);
+            this.loop = loop;
+        }
+
+        /**
+         * Gets the frame showing a given time into the clip.
+         * @param elapsedMillis Time since the clip started.
+         * @return The frame index.
+         */
+        int frameAt(long elapsedMillis)
+        {
+            long frame = Math.max(0, elapsedMillis) / frameMillis;
+            return (int) (loop ? frame % frames : Math.min(frame, frames - 1));
+        }
+
+        /**
+         * Checks whether a one-shot clip has played to the end.
+         * @param elapsedMillis Time since the clip started.
+         * @return True once the last frame has had its time.
+         */
+        boolean isFinished(long elapsedMillis)
+        {
+            return !loop && elapsedMillis >= (long) frames * frameMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+import javax.swing.BorderFactory; // Imports factory for borders
+import javax.swing.JButton; // Imports buttons to style
+import javax.swing.border.Border; // Imports the border type
+import java.awt.*; // Imports colors, fonts and the graphics environment
+import java.io.File; // Imports File class to find the bundled font
+import java.util.Arrays; // Imports helper for searching installed font names
+import java.util.concurrent.ConcurrentHashMap; // Imports thread-safe cache of derived fonts
+
+/**
+ * Shared look of Cooking with Carby: fonts, colors and borders.
+ * The game font is resolved once (a bundled copy from the resources folder if there is
+ * one, otherwise the installed font, otherwise Java’s default Dialog font), and each style and size
+ * is derived once and cached. Colors and borders are immutable, so every screen and
+ * button shares the same instances instead of allocating its own.
+ */
+public final class Theme
+{
+    static final String FONT_NAME = "Matura MT Script Capitals"; // The game’s font
+    static final String BUNDLED_FONT = "src/resources/game_font.ttf"; // Optional copy shipped with the game
+
+    // Colors
+    static final Color BUTTON = new Color(160, 82, 45); // Brown button background
+    static final Color BUTTON_TEXT = Color.WHITE; // White button text
+    static final Color LOCKED = new Color(100, 60, 30); // Darker brown for locked buttons
+    static final Color LOCKED_TEXT = new Color(180, 180, 180); // Grey text for locked buttons
+    static final Color PARCHMENT = new Color(245, 222, 179); // Beige for text boxes and dialogs
+    static final Color INK = new Color(51, 25, 0); // Dark brown text
+    static final Color TRIM = new Color(139, 69, 19); // Brown for the window and borders
+    static final Color FALLBACK_BACKGROUND = new Color(160, 82, 45); // Drawn when the background image is missing
+
+    // Borders
+    static final Border BUTTON_BORDER = BorderFactory.createRaisedBevelBorder(); // 3D raised border
+    static final Border TEXT_BORDER = BorderFactory.createLineBorder(TRIM, 2); // 2-pixel brown border
+    static final Border FIELD_BORDER = BorderFactory.createLineBorder(TRIM, 1); // Thin brown border
+
+    private static final Font base = resolveFont(); // The game font at size 1, resolved once
+    private static final ConcurrentHashMap<Integer, Font> fonts = new ConcurrentHashMap<>(); // Derived fonts by style and size
+
+    private Theme() {} // Only static members
+
+    /**
+     * Gets the game font in a style and size (derived once, then cached).
+     * @param style Font.PLAIN, Font.BOLD, ...
+     * @param size The point size.
+     * @return The font.
+     */
+    public static Font font(int style, int size)
+    {
+        return fonts.computeIfAbsent(style << 16 | size, key -> base.deriveFont(style, (float) size));
+    }
+
+    /**
+     * Applies the button look (font, colors, border) to a button.
+     * @param button The button to style.
+     * @param fontSize The label’s point size.
+     */
+    public static void styleButton(JButton button, int fontSize)
+    {
+        button.setFont(font(Font.BOLD, fontSize)); // Sets bold game font
+        button.setBackground(BUTTON); // Sets brown background
+        button.setForeground(BUTTON_TEXT); // Sets white text color
+        button.setBorder(BUTTON_BORDER); // Adds 3D raised border
+        button.setFocusPainted(false); // Removes focus outline when clicked
+        button.setPreferredSize(new Dimension(150, 40)); // Sets button size to 150x40
+    }
+
+    /**
+     * Finds the game font: bundled file first, then installed font, then the Dialog font.
+     * @return The font at size 1.
+     */
+    private static Font resolveFont()
+    {
+        File bundled = new File(BUNDLED_FONT);
+        if (bundled.isFile())
+        {
+            try // Tries to load the bundled font (might fail if the file is broken)
+            {
+                Font font = Font.createFont(Font.TRUETYPE_FONT, bundled);
+                GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font); // So other code can use it by name
+                return font;
+            }
+            catch (Exception e) // Falls back to the installed font
+            {
+                System.err.println("Couldn't load bundled font " + BUNDLED_FONT + " - " + e.getMessage());
+            }
+        }
+        String[] installed = GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames();
+        if (Arrays.asList(installed).contains(FONT_NAME))
+        {
+            return new Font(FONT_NAME, Font.PLAIN, 1);
+        }
+        System.err.println(FONT_NAME + " isn't installed. Using the default font instead."); // Reported once
+        return new Font(Font.DIALOG, Font.PLAIN, 1); // What an unknown font name falls back to anyway
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+import java.util.LinkedHashMap; // Imports an ordered map used as the LRU cache
+import java.util.Map; // Imports Map interface
+import java.util.Objects; // Imports helpers for equals/hashCode
+
+/**
+ * Exact win-probability calculator for Cooking with Carby.
+ * Instead of sampling battles like BalanceSimulator, this solves the battle as a
+ * dynamic program over (player HP, enemy HP) states using the player’s crit chance,
+ * dodge chance and the enemy’s fixed counterattack, for a given AttackPolicy.
+ * Results are cached per matchup with bounded LRU eviction, so repeat queries are instant.
+ */
+public class WinProbability
+{
+    private static final int CACHE_SIZE = 4096; // Maximum number of cached matchups
+
+    // Least-recently-used cache of solved matchups (access-ordered LinkedHashMap)
+    private static final Map<Key, Double> cache = new LinkedHashMap<Key, Double>(CACHE_SIZE, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest)
+        {
+            return size() > CACHE_SIZE; // Evicts the oldest entry once the cache is full
+        }
+    };
+
+    /**
+     * Gets the chance the player beats the enemy from full HP, using the cache.
+     * @param player The player (class, level and current stats).
+     * @param enemy The enemy (current HP and attack power).
+     * @param policy How the player picks attacks.
+     * @return The probability of winning (0.0 to 1.0).
+     */
+    public static double of(Player player, Enemy enemy, AttackPolicy policy)
+    {
+        Key key = new Key(player, enemy, policy);
+        synchronized (cache) // LinkedHashMap in access order changes on every get
+        {
+            Double cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+        double chance = solve(player, player.getMaxHP(), enemy.getHP(), enemy.getAttackPower(), policy);
+        synchronized (cache)
+        {
+            cache.put(key, chance);
+        }
+        return chance;
+    }
+
+    /**
+     * Solves a matchup exactly, without the cache.
+     * The player’s HP can only drop in whole counterattacks, so states are indexed by
+     * the number of hits taken rather than raw HP, which keeps the table small.
+     * Negative damage (only possible with heavy debuffs) is treated as no damage.
+     * @param player The player (stats and level; HP is taken from playerHP).
+     * @param playerHP The player’s starting HP.
+     * @param enemyHP The enemy’s starting HP.
+     * @param enemyAttack The enemy’s counterattack damage.
+     * @param policy How the player picks attacks.
+     * @return The probability of winning (0.0 to 1.0).
+     */
+    public static double solve(Player player, int playerHP, int enemyHP, int enemyAttack, AttackPolicy policy)
+    {
+        if (enemyHP <= 0) return 1.0; // Already won
+        if (playerHP <= 0) return 0.0; // Already lost
+
+        double crit = clampChance(player.getCritChance()); // Chance an attack crits
+        double dodge = clampChance(player.getDodgeChance()); // Chance a counterattack is dodged
+        int hit = Math.max(0, enemyAttack); // HP lost per counterattack that lands
+        int maxHits = hit == 0 ? 1 : (playerHP + hit - 1) / hit; // Hits the player survives before dropping
+
+        // win[k][e]: chance of winning after taking k hits with the enemy at e HP (row maxHits = defeated)
+        double[][] win = new double[maxHits + 1][enemyHP + 1];
+        for (int k = maxHits - 1; k >= 0; k--) // Fewer hits depend on more hits, so fill from the bottom
+        {
+            int hp = playerHP - k * hit;
+            int nextK = hit == 0 ? k : k + 1; // Row after a counterattack lands
+            for (int e = 1; e <= enemyHP; e++) // Lower enemy HP first, since every hit moves down
+            {
+                int damage = Math.max(0, BattleEngine.getBaseDamage(player, policy.chooseAttack(player, hp, e)));
+                double known = 0.0; // Chance from outcomes already in the table
+                double self = 0.0; // Chance of ending up back in this same state
+                for (int c = 0; c < 2; c++) // c = 1 for a critical hit, 0 otherwise
+                {
+                    double chance = c == 1 ? crit : 1.0 - crit;
+                    if (chance == 0.0) continue;
+                    int after = e - (c == 1 ? damage * 2 : damage);
+                    if (after <= 0) // Enemy defeated, no counterattack
+                    {
+                        known += chance;
+                        continue;
+                    }
+                    // Dodged counterattack keeps the player’s HP, a landed one moves to the next row
+                    if (after == e) self += chance * dodge;
+                    else known += chance * dodge * win[k][after];
+                    if (after == e && nextK == k) self += chance * (1.0 - dodge);
+                    else known += chance * (1.0 - dodge) * win[nextK][after];
+                }
+                win[k][e] = self >= 1.0 ? 0.0 : known / (1.0 - self); // Solves W = known + self * W
+            }
+        }
+        return win[0][enemyHP];
+    }
+
+    /**
+     * Converts a percent chance into a probability clamped to 0.0 - 1.0.
+     * @param percent The chance in percent (e.g., getCritChance()).
+     * @return The probability.
+     */
+    private static double clampChance(int percent)
+    {
+        return Math.max(0, Math.min(100, percent)) / 100.0; // Engine rolls nextInt(100) < percent
+    }
+
+    /**
+     * Cache key: everything that affects the outcome of a matchup.
+     */
+    private static final class Key
+    {
+        private final String classType, enemyName;
+        private final int level, precision, stamina, creativity, flavorSense, speed, maxHP; // Player stat vector
+        private final int enemyHP, enemyAttack; // Enemy state
+        private final AttackPolicy policy;
+
+        Key(Player player, Enemy enemy, AttackPolicy policy)
+        {
+            this.classType = player.getClassType();
+            this.level = player.getLevel();
+            this.precision = player.getPrecision();
+            this.stamina = player.getStamina();
+            this.creativity = player.getCreativity();
+            this.flavorSense = player.getFlavorSense();
+            this.speed = player.getSpeed();
+            this.maxHP = player.getMaxHP();
+            this.enemyName = enemy.getName();
+            this.enemyHP = enemy.getHP();
+            this.enemyAttack = enemy.getAttackPower();
+            this.policy = policy;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return level == k.level && precision == k.precision && stamina == k.stamina
+                    && creativity == k.creativity && flavorSense == k.flavorSense && speed == k.speed
+                    && maxHP == k.maxHP && enemyHP == k.enemyHP && enemyAttack == k.enemyAttack
+                    && policy == k.policy && classType.equals(k.classType) && enemyName.equals(k.enemyName);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(classType, level, precision, stamina, creativity, flavorSense, speed, maxHP,
+                    enemyName, enemyHP, enemyAttack, System.identityHashCode(policy));
+        }
+    }
+}
\ No newline at end of file